@@ -0,0 +1,152 @@
+package benchmark;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessJson;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Perft;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the shared chess engine's public API on an opening, a middlegame and
+ * an endgame position. Run through {@link BenchmarkMain} to also get allocation rates.
+ * <p>
+ * ChessGame caches the legal moves and status of its current position, and the position
+ * here never changes. The move and status benchmarks therefore drop those caches before
+ * every call, through {@link Uncached}, so they measure move generation as before the
+ * caches existed; the {@code Cached} variants measure the cache hits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private final Gson gson = ChessJson.gson();
+    private ChessGame game;
+    private ChessPosition[] ownPieces;
+    private ChessMove firstMove;
+    private String json;
+
+    @Setup
+    public void setUp() throws InvalidMoveException {
+        game = switch (phase) {
+            case "opening" -> opening();
+            case "middlegame" -> Perft.position("kiwipete").toGame();
+            case "endgame" -> Perft.position("position3").toGame();
+            default -> throw new IllegalArgumentException("Unknown phase: " + phase);
+        };
+
+        List<ChessPosition> positions = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    positions.add(position);
+                    if (firstMove == null && !game.validMoves(position).isEmpty()) {
+                        firstMove = game.validMoves(position).iterator().next();
+                    }
+                }
+            }
+        }
+        ownPieces = positions.toArray(new ChessPosition[0]);
+        json = gson.toJson(game);
+    }
+
+    /**
+     * Drops the game's cached moves and status before each call. Setting the same board
+     * again leaves the position and its history as they were.
+     */
+    @State(Scope.Thread)
+    public static class Uncached {
+        @Setup(Level.Invocation)
+        public void dropCaches(ChessGameBenchmark benchmark) {
+            benchmark.game.setBoard(benchmark.game.getBoard());
+        }
+    }
+
+    // 1. e4 e5 2. Nf3 Nc6 3. Bb5 a6
+    private static ChessGame opening() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        int[][] moves = {{2, 5, 4, 5}, {7, 5, 5, 5}, {1, 7, 3, 6}, {8, 2, 6, 3}, {1, 6, 5, 2}, {7, 1, 6, 1}};
+        for (int[] move : moves) {
+            game.makeMove(new ChessMove(new ChessPosition(move[0], move[1]), new ChessPosition(move[2], move[3]), null));
+        }
+        return game;
+    }
+
+    @Benchmark
+    public void validMoves(Uncached uncached, Blackhole blackhole) {
+        for (ChessPosition position : ownPieces) {
+            blackhole.consume(game.validMoves(position));
+        }
+    }
+
+    @Benchmark
+    public void validMovesCached(Blackhole blackhole) {
+        for (ChessPosition position : ownPieces) {
+            blackhole.consume(game.validMoves(position));
+        }
+    }
+
+    @Benchmark
+    public void makeMove() throws InvalidMoveException {
+        game.makeMove(firstMove);
+        game.undoMove();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(Uncached uncached) {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmateCached() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate(Uncached uncached) {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemateCached() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessBoard copyBoard() {
+        return new ChessBoard(game.getBoard());
+    }
+
+    @Benchmark
+    public String gsonSerialize() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame gsonDeserialize() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+}
@@ -96,7 +96,8 @@ public class DatabaseManager {
     }
 
     /**
-     * Initializes the database tables if they do not exist.
+     * Initializes the database tables if they do not exist, and moves game state columns
+     * created by older versions over to binary.
      */
     public static void initializeTables() throws DataAccessException {
         String createUserTable = "CREATE TABLE IF NOT EXISTS UserData ("
@@ -116,7 +117,7 @@ public class DatabaseManager {
                 + "whiteUsername VARCHAR(50),"
                 + "blackUsername VARCHAR(50),"
                 + "gameName VARCHAR(50),"
-                + "gameState JSON,"
+                + "gameState LONGBLOB,"
                 + "FOREIGN KEY (whiteUsername) REFERENCES UserData(username),"
                 + "FOREIGN KEY (blackUsername) REFERENCES UserData(username)"
                 + ");";
@@ -130,6 +131,8 @@ public class DatabaseManager {
             stmt.executeUpdate(createUserTable);
             stmt.executeUpdate(createAuthTable);
             stmt.executeUpdate(createGameTable);
+            migrateStateColumn(conn, "GameData", "gameState");
+            migrateStateColumn(conn, "Games", "state");
             System.out.println("Tables initialized successfully.");
         } catch (SQLException e) {
             throw new DataAccessException("Error initializing tables: " + e.getMessage(), e);
@@ -151,6 +154,35 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Game state is stored in GameCodec's binary format, which a JSON or text column
+     * rejects. Older versions declared the column as JSON, so convert it in place; the
+     * JSON already in it is kept as UTF-8 bytes, which GameDAO still reads. Does nothing
+     * if the table doesn't exist or the column is already binary.
+     */
+    private static void migrateStateColumn(Connection conn, String table, String column) throws SQLException {
+        String typeQuery = "SELECT DATA_TYPE FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        String dataType;
+        try (PreparedStatement query = conn.prepareStatement(typeQuery)) {
+            query.setString(1, table);
+            query.setString(2, column);
+            try (ResultSet rs = query.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+                dataType = rs.getString(1).toLowerCase();
+            }
+        }
+        if (dataType.endsWith("blob")) {
+            return;
+        }
+        try (Statement alter = conn.createStatement()) {
+            alter.executeUpdate("ALTER TABLE " + table + " MODIFY " + column + " LONGBLOB");
+            System.out.println("Converted " + table + "." + column + " from " + dataType + " to LONGBLOB.");
+        }
+    }
+
     /**
      * Static method to get a database connection.
      */
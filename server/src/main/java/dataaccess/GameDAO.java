@@ -2,15 +2,20 @@ package dataaccess;
 
 import model.GameData;
 import chess.ChessGame;
+import chess.ChessJson;
+import chess.GameCodec;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class GameDAO {
 
-  private final Gson gson = new Gson();
+  private final Gson gson = ChessJson.gson();
 
   /**
    * Inserts a new game into the database.
@@ -24,8 +29,7 @@ public class GameDAO {
          PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
       stmt.setString(1, game.gameName());
-      String stateJson = gson.toJson(game.game());
-      stmt.setString(2, stateJson);
+      setState(stmt, 2, game.game());
 
       // Get player IDs from usernames
       Integer whitePlayerId = getUserIdByUsername(game.whiteUsername());
@@ -58,6 +62,52 @@ public class GameDAO {
     }
   }
 
+  /**
+   * Inserts many games with one batched statement in a single transaction, for bulk imports.
+   * Either every game is inserted or none is.
+   *
+   * @param games The games to insert; each gets its generated game ID.
+   * @throws DataAccessException If an error occurs during the database operation.
+   */
+  public void insertGames(List<GameData> games) throws DataAccessException {
+    if (games.isEmpty()) {
+      return;
+    }
+    String sql = "INSERT INTO Games (game_name, state, white_player_id, black_player_id) VALUES (?, ?, ?, ?)";
+    try (Connection conn = DatabaseManager.getConnection();
+         PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+      conn.setAutoCommit(false);
+      try {
+        for (GameData game : games) {
+          stmt.setString(1, game.gameName());
+          setState(stmt, 2, game.game());
+          setPlayerId(stmt, 3, getUserIdByUsername(game.whiteUsername()));
+          setPlayerId(stmt, 4, getUserIdByUsername(game.blackUsername()));
+          stmt.addBatch();
+        }
+        stmt.executeBatch();
+        conn.commit();
+      } catch (SQLException | DataAccessException e) {
+        conn.rollback();
+        throw e;
+      }
+
+      // Keys come back in insertion order
+      try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+        for (GameData game : games) {
+          if (!generatedKeys.next()) {
+            break;
+          }
+          game.setGameID(generatedKeys.getInt(1));
+        }
+      }
+
+    } catch (SQLException e) {
+      throw new DataAccessException("Error inserting games: " + e.getMessage());
+    }
+  }
+
   /**
    * Updates an existing game.
    *
@@ -70,8 +120,7 @@ public class GameDAO {
          PreparedStatement stmt = conn.prepareStatement(sql)) {
 
       stmt.setString(1, game.gameName());
-      String stateJson = gson.toJson(game.game());
-      stmt.setString(2, stateJson);
+      setState(stmt, 2, game.game());
 
       // Get player IDs from usernames
       Integer whitePlayerId = getUserIdByUsername(game.whiteUsername());
@@ -118,10 +167,7 @@ public class GameDAO {
 
       if (rs.next()) {
         String gameName = rs.getString("game_name");
-        String stateJson = rs.getString("state");
-
-        // Deserialize the game state
-        ChessGame chessGame = gson.fromJson(stateJson, ChessGame.class);
+        ChessGame chessGame = readState(rs);
 
         Integer whitePlayerId = rs.getObject("white_player_id", Integer.class);
         Integer blackPlayerId = rs.getObject("black_player_id", Integer.class);
@@ -155,10 +201,7 @@ public class GameDAO {
       while (rs.next()) {
         int gameID = rs.getInt("game_id");
         String gameName = rs.getString("game_name");
-        String stateJson = rs.getString("state");
-
-        // Deserialize the game state
-        ChessGame chessGame = gson.fromJson(stateJson, ChessGame.class);
+        ChessGame chessGame = readState(rs);
 
         Integer whitePlayerId = rs.getObject("white_player_id", Integer.class);
         Integer blackPlayerId = rs.getObject("black_player_id", Integer.class);
@@ -193,6 +236,40 @@ public class GameDAO {
     }
   }
 
+  // Helper method to store the game state in its compact binary form
+  private void setState(PreparedStatement stmt, int index, ChessGame game) throws SQLException {
+    if (game == null) {
+      stmt.setNull(index, Types.BLOB);
+    } else {
+      stmt.setBytes(index, GameCodec.encode(game));
+    }
+  }
+
+  // Helper method to set an optional player ID column
+  private void setPlayerId(PreparedStatement stmt, int index, Integer playerId) throws SQLException {
+    if (playerId != null) {
+      stmt.setInt(index, playerId);
+    } else {
+      stmt.setNull(index, Types.INTEGER);
+    }
+  }
+
+  // Helper method to read the game state; rows written before the binary format hold JSON
+  private ChessGame readState(ResultSet rs) throws SQLException, DataAccessException {
+    byte[] state = rs.getBytes("state");
+    if (state == null) {
+      return null;
+    }
+    try {
+      if (GameCodec.isEncoded(state)) {
+        return GameCodec.decode(state);
+      }
+      return gson.fromJson(new String(state, StandardCharsets.UTF_8), ChessGame.class);
+    } catch (IllegalArgumentException | JsonParseException e) {
+      throw new DataAccessException("Error reading game state: " + e.getMessage());
+    }
+  }
+
   // Helper method to get user ID by username
   private Integer getUserIdByUsername(String username) throws DataAccessException {
     if (username == null) {
@@ -9,6 +9,7 @@ import dataaccess.GameDAO;
 import dataaccess.AuthDAO;
 import dataaccess.DatabaseManager;
 import dataaccess.DataAccessException;
+import chess.ChessJson;
 import com.google.gson.Gson;
 import model.UserData;
 import model.AuthData;
@@ -23,7 +24,7 @@ import exceptions.GameNotFoundException;
 import java.util.Objects;
 
 public class Server {
-    private static final Gson gson = new Gson();
+    private static final Gson gson = ChessJson.gson();
     private static boolean isInitialized = false;
 
     private UserService userService;
@@ -0,0 +1,219 @@
+package service;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.Notation;
+import chess.PgnReader;
+import dataaccess.DataAccessException;
+import dataaccess.GameDAO;
+import exceptions.ServiceException;
+import model.GameData;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bulk imports PGN game archives into the game store.
+ * <p>
+ * The calling thread streams game texts out of the file and hands them to worker
+ * threads through a bounded queue, so memory stays flat however large the file is.
+ * Each worker parses its games, replays every move through {@link Notation#playSan}
+ * to check it is legal, and writes the games that pass to the DAO in batches. Games that
+ * fail to parse or contain an illegal move are counted and skipped.
+ */
+public class PgnImportService {
+  public static final int DEFAULT_BATCH_SIZE = 500;
+  private static final int PROGRESS_INTERVAL = 10_000;
+  // Game names are stored in a VARCHAR(50) column
+  private static final int MAX_NAME_LENGTH = 50;
+
+  // One game's text for a worker, or END to tell it there are no more games
+  private record Task(String text) {
+  }
+
+  private static final Task END = new Task(null);
+
+  /**
+   * Progress or outcome of an import.
+   *
+   * @param gamesRead     games read from the file so far
+   * @param gamesImported games validated and written to the store
+   * @param gamesSkipped  malformed or oversized games left out
+   * @param nanos         time since the import started
+   */
+  public record Report(long gamesRead, long gamesImported, long gamesSkipped, long nanos) {
+
+    public long gamesPerSecond() {
+      return nanos == 0 ? 0 : gamesRead * 1_000_000_000L / nanos;
+    }
+  }
+
+  private final GameDAO gameDAO;
+  private final int threads;
+  private final int batchSize;
+
+  public PgnImportService(GameDAO gameDAO, int threads, int batchSize) {
+    if (threads < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Thread count and batch size must be positive");
+    }
+    this.gameDAO = gameDAO;
+    this.threads = threads;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Imports every valid game in a PGN file.
+   *
+   * @param progress called from the reading thread every few thousand games; may be null
+   * @throws ServiceException if the file can't be read, the store rejects a batch or a worker fails
+   */
+  public Report importFile(Path file, Consumer<Report> progress) throws ServiceException {
+    long start = System.nanoTime();
+    BlockingQueue<Task> queue = new ArrayBlockingQueue<>(threads * 64);
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    LongAdder imported = new LongAdder();
+    LongAdder skipped = new LongAdder();
+
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      workers.add(Thread.ofPlatform().name("pgn-import-" + i).daemon()
+              .start(() -> work(queue, imported, skipped, failure)));
+    }
+
+    long read = 0;
+    long oversized = 0;
+    try (PgnReader reader = new PgnReader(file)) {
+      String text;
+      while (failure.get() == null && (text = reader.nextGame()) != null) {
+        Task task = new Task(text);
+        while (!queue.offer(task, 100, TimeUnit.MILLISECONDS)) {
+          if (failure.get() == null && workers.stream().noneMatch(Thread::isAlive)) {
+            failure.compareAndSet(null, new IllegalStateException("Every import worker has stopped"));
+          }
+          if (failure.get() != null) {
+            break;
+          }
+        }
+        read++;
+        if (progress != null && read % PROGRESS_INTERVAL == 0) {
+          progress.accept(new Report(read, imported.sum(), skipped.sum() + reader.oversizedGames(),
+                  System.nanoTime() - start));
+        }
+      }
+      oversized = reader.oversizedGames();
+    } catch (IOException e) {
+      failure.compareAndSet(null, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure.compareAndSet(null, e);
+    } finally {
+      finishWorkers(queue, workers);
+    }
+
+    Exception error = failure.get();
+    if (error instanceof DataAccessException) {
+      throw new ServiceException("Error storing imported games", error);
+    } else if (error instanceof IOException) {
+      throw new ServiceException("Error reading PGN file " + file, error);
+    } else if (error != null) {
+      throw new ServiceException("Error importing PGN file " + file, error);
+    }
+    return new Report(read + oversized, imported.sum(), skipped.sum() + oversized, System.nanoTime() - start);
+  }
+
+  // A worker that fails for any reason records why, so the reader stops feeding it
+  private void work(BlockingQueue<Task> queue, LongAdder imported, LongAdder skipped,
+                    AtomicReference<Exception> failure) {
+    List<GameData> batch = new ArrayList<>(batchSize);
+    try {
+      Task task;
+      while ((task = queue.take()) != END) {
+        GameData game = validate(task.text());
+        if (game == null) {
+          skipped.increment();
+          continue;
+        }
+        batch.add(game);
+        if (batch.size() == batchSize) {
+          gameDAO.insertGames(batch);
+          imported.add(batch.size());
+          batch.clear();
+        }
+      }
+      gameDAO.insertGames(batch);
+      imported.add(batch.size());
+    } catch (DataAccessException | RuntimeException e) {
+      failure.compareAndSet(null, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Sends each live worker the end marker and waits for it to write its last batch
+  private static void finishWorkers(BlockingQueue<Task> queue, List<Thread> workers) {
+    boolean interrupted = false;
+    for (Thread worker : workers) {
+      try {
+        while (worker.isAlive() && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+          // The queue is full; keep trying while the worker is still draining it
+        }
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    for (Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return the game with its moves played out, or null if it is malformed or has an illegal move
+   */
+  static GameData validate(String text) {
+    try {
+      PgnReader.PgnGame pgn = PgnReader.parse(text);
+      String fen = pgn.tags().get("FEN");
+      ChessGame game = fen == null ? new ChessGame() : Fen.parse(fen);
+      for (String san : pgn.moves()) {
+        Notation.playSan(game, san);
+      }
+      return new GameData(0, null, null, gameName(pgn), game);
+    } catch (IllegalArgumentException | InvalidMoveException e) {
+      return null;
+    }
+  }
+
+  private static String gameName(PgnReader.PgnGame pgn) {
+    String name = pgn.tags().getOrDefault("White", "?") + " vs " + pgn.tags().getOrDefault("Black", "?");
+    return name.length() <= MAX_NAME_LENGTH ? name : name.substring(0, MAX_NAME_LENGTH);
+  }
+
+  public static void main(String[] args) throws ServiceException {
+    if (args.length < 1) {
+      System.out.println("Usage: PgnImportService <file.pgn> [threads]");
+      return;
+    }
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    PgnImportService importer = new PgnImportService(new GameDAO(), threads, DEFAULT_BATCH_SIZE);
+    Report report = importer.importFile(Path.of(args[0]), progress ->
+            System.out.printf("%,d games read, %,d games/s%n", progress.gamesRead(), progress.gamesPerSecond()));
+    System.out.printf("Imported %,d of %,d games (%,d skipped) in %.1f s, %,d games/s%n", report.gamesImported(),
+            report.gamesRead(), report.gamesSkipped(), report.nanos() / 1e9, report.gamesPerSecond());
+  }
+}
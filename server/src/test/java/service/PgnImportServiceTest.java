@@ -0,0 +1,54 @@
+package service;
+
+import chess.ChessGame;
+import dataaccess.GameDAO;
+import exceptions.ServiceException;
+import model.GameData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnImportServiceTest {
+
+  @Test
+  public void testValidateReplaysMoves() {
+    GameData game = PgnImportService.validate("""
+            [White "Fool"]
+            [Black "Scholar"]
+
+            1. f3 e5 2. g4 Qh4# 0-1
+            """);
+    assertNotNull(game);
+    assertEquals("Fool vs Scholar", game.gameName());
+    assertTrue(game.game().isInCheckmate(ChessGame.TeamColor.WHITE));
+  }
+
+  @Test
+  public void testValidateSkipsIllegalMoves() {
+    assertNull(PgnImportService.validate("[White \"A\"]\n\n1. e4 e4 *\n"));
+    assertNull(PgnImportService.validate("[White \"A\"]\n\n1. e4 {unterminated\n"));
+  }
+
+  @Test
+  public void testImportFailsWhenWorkersDie(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("games.pgn");
+    Files.writeString(file, "[White \"A\"]\n\n1. e4 e5 *\n\n".repeat(500));
+    GameDAO failingDAO = new GameDAO() {
+      @Override
+      public void insertGames(List<GameData> games) {
+        throw new IllegalStateException("store unavailable");
+      }
+    };
+    PgnImportService importer = new PgnImportService(failingDAO, 2, 1);
+
+    ServiceException e = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> assertThrows(ServiceException.class, () -> importer.importFile(file, null)));
+    assertInstanceOf(IllegalStateException.class, e.getCause());
+  }
+}
@@ -0,0 +1,205 @@
+package chess;
+
+import java.util.List;
+
+/**
+ * Precomputed attack tables over the square indexes used by {@link ChessBoard}
+ * (0 = a1 ... 63 = h8).
+ * <p>
+ * Knight, king and pawn attacks are single table lookups. Rook and bishop attacks use
+ * magic bitboards: the blockers on a square's relevant rays are multiplied by a
+ * per-square magic number, and the top bits of the product index a table of
+ * precomputed attack sets.
+ */
+final class Attacks {
+    // Ray directions as {row step, column step}; the first four increase the square index
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {0, 1}, {1, 1}, {1, -1},
+            {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}
+    };
+    static final int NORTH = 0;
+    static final int EAST = 1;
+    static final int NORTH_EAST = 2;
+    static final int NORTH_WEST = 3;
+    static final int SOUTH = 4;
+    static final int WEST = 5;
+    static final int SOUTH_WEST = 6;
+    static final int SOUTH_EAST = 7;
+
+    static final long[] KNIGHT = new long[64];
+    static final long[] KING = new long[64];
+    // PAWN[team][square]: squares a pawn of that team on that square attacks
+    static final long[][] PAWN = new long[2][64];
+    // RAYS[direction][square]: every square from the square to the edge, exclusive
+    static final long[][] RAYS = new long[8][64];
+    // BETWEEN[a][b]: squares strictly between two squares on a shared line, else empty
+    static final long[][] BETWEEN = new long[64][64];
+    // LINE[a][b]: the whole line through two squares, edge to edge, else empty
+    static final long[][] LINE = new long[64][64];
+
+    // Relevant blocker masks, magic multipliers, shifts and attack tables per square
+    private static final long[] ROOK_MASKS = new long[64];
+    // Magic multipliers found offline with a sparse random search (xorshift64*, fixed seed)
+    private static final long[] ROOK_MAGICS = {
+            0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+            0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+            0x0000800080204001L, 0x1000804000802001L, 0x8240801000200080L, 0x8611001004200900L,
+            0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+            0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+            0x0001818014000800L, 0xA002010100080400L, 0x0008040088020130L, 0x0001020004048845L,
+            0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+            0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+            0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+            0x4540040080800800L, 0x0000800400800200L, 0x9281800100808200L, 0x8004048102000854L,
+            0x4420802040008006L, 0x0880500020004002L, 0x0801200241050010L, 0x8400080010008080L,
+            0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+            0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+            0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+            0x8044110480002441L, 0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+            0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+            0x1010220204082A00L, 0x80E0020202002804L, 0x2008480104200020L, 0x000220920280002DL,
+            0x32040421000B0284L, 0x1002080404000400L, 0x0004160892080040L, 0x2203024206204201L,
+            0x0002404264010200L, 0x1120908408428124L, 0xB100424403002280L, 0x240008060440C288L,
+            0x2040040420490400L, 0x0100620210040022L, 0x0400084104202028L, 0x0010050080908820L,
+            0x0C90A04490824802L, 0x000200A008210130L, 0x0C08001000204010L, 0x0008000186014480L,
+            0x0601044820080021L, 0x0002000101013100L, 0x1400A08108080204L, 0x0250401104485410L,
+            0x4820240810142843L, 0x0009142A20182200L, 0x0848140048440020L, 0x2020120000400440L,
+            0x0108840200802003L, 0x0009070082009492L, 0x020C0C0038424245L, 0xCA44005808210410L,
+            0x8011212000500404L, 0x2028840510101008L, 0x0004042A00041400L, 0x0624020080980080L,
+            0x1820410040840040L, 0x2201004202050100L, 0x402A088A24040224L, 0x0242061040002400L,
+            0x90020202400821A0L, 0x00C9009004E01002L, 0x58C2060202023100L, 0x0000012214040800L,
+            0x0210846810100200L, 0x0004208081010200L, 0x01A4108404442100L, 0x8054082C80280106L,
+            0x0004144904104208L, 0x00324C0A11104000L, 0x1000020231040100L, 0x2080001042020004L,
+            0x0544021020288104L, 0x1103501408083020L, 0x4010451004960002L, 0x003010091C44902CL,
+            0x0102402884202000L, 0x0480804C00841086L, 0x04602C8602210400L, 0x0000004000420200L,
+            0x0040000020442C18L, 0x4483804089094100L, 0x80000B0248020400L, 0x0045010808008680L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    static {
+        int[][] knightOffsets = {{-2, -1}, {-1, -2}, {1, -2}, {2, -1}, {2, 1}, {1, 2}, {-1, 2}, {-2, 1}};
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int column = square % 8;
+            for (int[] offset : knightOffsets) {
+                KNIGHT[square] |= bit(row + offset[0], column + offset[1]);
+            }
+            for (int direction = 0; direction < 8; direction++) {
+                int[] step = DIRECTIONS[direction];
+                KING[square] |= bit(row + step[0], column + step[1]);
+                for (int r = row + step[0], c = column + step[1]; bit(r, c) != 0; r += step[0], c += step[1]) {
+                    RAYS[direction][square] |= bit(r, c);
+                }
+            }
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = bit(row + 1, column - 1) | bit(row + 1, column + 1);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = bit(row - 1, column - 1) | bit(row - 1, column + 1);
+        }
+
+        for (int square = 0; square < 64; square++) {
+            for (int direction = 0; direction < 8; direction++) {
+                // Opposite directions are four apart in DIRECTIONS
+                long line = RAYS[direction][square] | RAYS[(direction + 4) % 8][square] | (1L << square);
+                for (long targets = RAYS[direction][square]; targets != 0; targets &= targets - 1) {
+                    int target = Long.numberOfTrailingZeros(targets);
+                    BETWEEN[square][target] = RAYS[direction][square] & ~RAYS[direction][target] & ~(1L << target);
+                    LINE[square][target] = line;
+                }
+            }
+        }
+
+        for (int square = 0; square < 64; square++) {
+            initMagic(square, true);
+            initMagic(square, false);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long bit(int row, int column) {
+        return (row < 0 || row > 7 || column < 0 || column > 7) ? 0L : 1L << (row * 8 + column);
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        long blockers = occupied & ROOK_MASKS[square];
+        return ROOK_TABLE[square][(int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        long blockers = occupied & BISHOP_MASKS[square];
+        return BISHOP_TABLE[square][(int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Adds a move from a square to every square in a target bitboard.
+     */
+    static void addMoves(List<ChessMove> moves, ChessPosition from, long targets) {
+        int fromSquare = ChessBoard.squareOf(from);
+        for (; targets != 0; targets &= targets - 1) {
+            moves.add(ChessMove.of(fromSquare, Long.numberOfTrailingZeros(targets), null));
+        }
+    }
+
+    private static void initMagic(int square, boolean rook) {
+        int[] directions = rook ? new int[]{NORTH, EAST, SOUTH, WEST} : new int[]{NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST};
+        long magic = rook ? ROOK_MAGICS[square] : BISHOP_MAGICS[square];
+
+        // Edge squares never change what a slider can reach, so they are left out of the mask
+        long mask = 0;
+        for (int direction : directions) {
+            long ray = RAYS[direction][square];
+            long last = direction < 4 ? Long.highestOneBit(ray) : Long.lowestOneBit(ray);
+            mask |= ray & ~last;
+        }
+        int bits = Long.bitCount(mask);
+        int shift = 64 - bits;
+        long[] table = new long[1 << bits];
+
+        // Fill the table for every blocker subset of the mask (carry-rippler enumeration)
+        long subset = 0;
+        do {
+            long attacks = 0;
+            for (int direction : directions) {
+                attacks |= ray(direction, square, subset);
+            }
+            int index = (int) ((subset * magic) >>> shift);
+            if (table[index] != 0 && table[index] != attacks) {
+                throw new IllegalStateException("Bad magic for square " + square);
+            }
+            table[index] = attacks;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        if (rook) {
+            ROOK_MASKS[square] = mask;
+            ROOK_SHIFTS[square] = shift;
+            ROOK_TABLE[square] = table;
+        } else {
+            BISHOP_MASKS[square] = mask;
+            BISHOP_SHIFTS[square] = shift;
+            BISHOP_TABLE[square] = table;
+        }
+    }
+
+    // Walks a ray up to and including its first blocker; used to fill the magic tables
+    private static long ray(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        // The nearest blocker is the lowest set bit on increasing rays, the highest on decreasing ones
+        int blocker = direction < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[direction][blocker];
+    }
+}
@@ -1,10 +1,69 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
+/**
+ * A chessboard that can hold and rearrange chess pieces.
+ * <p>
+ * The board is stored as twelve 64-bit bitboards, one per team and piece type, plus
+ * per-team and overall occupancy masks. Bit {@code i} of a bitboard is the square at
+ * row {@code i / 8 + 1}, column {@code i % 8 + 1}, so a1 is bit 0 and h8 is bit 63.
+ * A parallel 64-entry array keeps the piece objects so {@link #getPiece} stays a
+ * single lookup.
+ * <p>
+ * Moves can be applied in place with {@link #makeMove(ChessMove)} and taken back with
+ * {@link #unmakeMove()}. Each applied move pushes one packed undo record, so trying a
+ * move and reverting it never copies the board.
+ * <p>
+ * The board also keeps a Zobrist key of its pieces up to date as they move, so
+ * {@link #getZobristKey()} and {@link #hashCode()} are constant time, and likewise
+ * the material and piece-square totals that {@link Evaluation} blends into a score.
+ */
 public class ChessBoard {
-    private ChessPiece[][] squares = new ChessPiece[8][8];
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING_RIGHTS = 15;
+
+    // Castling rights that survive a move touching each square: moving a king or rook,
+    // or capturing on a rook's home square, gives up the matching rights.
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING_RIGHTS);
+        CASTLING_MASKS[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[63] &= ~BLACK_KINGSIDE;
+    }
+
+    // Undo record layout: bits 0-5 from, 6-11 to, 12-17 captured square,
+    // 18-21 previous castling rights, 22-28 previous en passant square + 1, 29 castling
+    private static final int CAPTURE_SHIFT = 12;
+    private static final int CASTLING_SHIFT = 18;
+    private static final int EN_PASSANT_SHIFT = 22;
+    private static final long CASTLE_FLAG = 1L << 29;
+
+    private long[] pieceBoards = new long[12];
+    private long[] teamBoards = new long[2];
+    private long occupied;
+    private ChessPiece[] squares = new ChessPiece[64];
+    private int castlingRights = ALL_CASTLING_RIGHTS;
+    private int enPassantSquare = -1;
+    // XOR of the Zobrist keys of every piece on its square
+    private long pieceKey;
+    // Evaluation totals for white minus black, and the game phase (see Evaluation)
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    // Undo stack: one packed record per applied move, plus the moved and captured pieces
+    private transient long[] undoRecords;
+    private transient ChessPiece[] undoPieces;
+    private transient int undoCount;
 
     public ChessBoard() {
         // Constructor logic (if any)
@@ -12,34 +71,35 @@ public class ChessBoard {
 
     // Copy constructor
     public ChessBoard(ChessBoard originalBoard) {
-        this.squares = new ChessPiece[8][8];
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece originalPiece = originalBoard.squares[row][col];
-                if (originalPiece != null) {
-                    this.squares[row][col] = new ChessPiece(originalPiece.getTeamColor(), originalPiece.getPieceType());
-                    this.squares[row][col].setCurrentPosition(new ChessPosition(row + 1, col + 1));
-                }
-            }
-        }
+        this.pieceBoards = originalBoard.pieceBoards.clone();
+        this.teamBoards = originalBoard.teamBoards.clone();
+        this.occupied = originalBoard.occupied;
+        this.castlingRights = originalBoard.castlingRights;
+        this.enPassantSquare = originalBoard.enPassantSquare;
+        this.pieceKey = originalBoard.pieceKey;
+        this.middlegameScore = originalBoard.middlegameScore;
+        this.endgameScore = originalBoard.endgameScore;
+        this.phase = originalBoard.phase;
+        // Pieces are immutable as far as the board is concerned, so the copy shares them
+        this.squares = originalBoard.squares.clone();
     }
 
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        if (isPositionValid(position)) {
-            squares[position.getRow() - 1][position.getColumn() - 1] = piece;
-            if (piece != null) {
-                piece.setCurrentPosition(position); // Update the current position of the piece
-            }
-        } else {
+        if (!isPositionValid(position)) {
             throw new IllegalArgumentException("Position out of bounds");
         }
+        int square = squareOf(position);
+        removePiece(square);
+        if (piece != null) {
+            placePiece(square, piece);
+        }
     }
 
     public ChessPiece getPiece(ChessPosition position) {
         if (!isPositionValid(position)) {
             throw new IllegalArgumentException("Position out of bounds");
         }
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        return squares[squareOf(position)];
     }
 
     public boolean isPositionValid(ChessPosition position) {
@@ -48,7 +108,298 @@ public class ChessBoard {
     }
 
     public boolean isPieceAt(ChessPosition position) {
-        return getPiece(position) != null;
+        if (!isPositionValid(position)) {
+            throw new IllegalArgumentException("Position out of bounds");
+        }
+        return (occupied & (1L << squareOf(position))) != 0;
+    }
+
+    /**
+     * Applies a move in place without checking that it is legal. Castling (a king moving
+     * two columns), en passant (a pawn moving diagonally onto an empty square) and
+     * promotion are recognised from the move itself. The move can be taken back with
+     * {@link #unmakeMove()}.
+     *
+     * @param move the move to apply; its start square must hold a piece
+     */
+    public void makeMove(ChessMove move) {
+        makeMove(Move.of(move));
+    }
+
+    /**
+     * Applies a packed move (see {@link Move}) in place; the core of
+     * {@link #makeMove(ChessMove)} used directly by the move generator.
+     */
+    void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece piece = squares[from];
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece at " + positionOf(from));
+        }
+
+        int captureSquare = to;
+        long record = from | ((long) to << 6) | ((long) castlingRights << CASTLING_SHIFT)
+                | ((long) (enPassantSquare + 1) << EN_PASSANT_SHIFT);
+
+        ChessPiece.PieceType type = piece.getPieceType();
+        if (type == ChessPiece.PieceType.PAWN && squares[to] == null && (from & 7) != (to & 7)) {
+            // En passant: the captured pawn sits beside the start square, not on the target
+            captureSquare = (from & ~7) | (to & 7);
+        } else if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            ChessPiece rook = squares[rookFrom];
+            if (rook != null) {
+                record |= CASTLE_FLAG;
+                removePiece(rookFrom);
+                placePiece(rookTo, rook);
+            }
+        }
+        record |= (long) captureSquare << CAPTURE_SHIFT;
+
+        ChessPiece captured = squares[captureSquare];
+        pushUndo(record, piece, captured);
+        removePiece(captureSquare);
+        removePiece(from);
+        if (type == ChessPiece.PieceType.PAWN && Move.isPromotion(move)) {
+            placePiece(to, ChessPiece.of(piece.getTeamColor(), Move.promotion(move)));
+        } else {
+            placePiece(to, piece);
+        }
+
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        enPassantSquare = (type == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16) ? (from + to) / 2 : -1;
+    }
+
+    /**
+     * Takes back the most recent move applied with {@link #makeMove(ChessMove)},
+     * restoring any captured piece, the pre-promotion pawn, castling rights and the
+     * en passant square.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        undoCount--;
+        long record = undoRecords[undoCount];
+        ChessPiece piece = undoPieces[2 * undoCount];
+        ChessPiece captured = undoPieces[2 * undoCount + 1];
+        undoPieces[2 * undoCount] = null;
+        undoPieces[2 * undoCount + 1] = null;
+
+        int from = (int) (record & 63);
+        int to = (int) ((record >>> 6) & 63);
+        int captureSquare = (int) ((record >>> CAPTURE_SHIFT) & 63);
+
+        removePiece(to);
+        placePiece(from, piece);
+        if (captured != null) {
+            placePiece(captureSquare, captured);
+        }
+        if ((record & CASTLE_FLAG) != 0) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            ChessPiece rook = squares[rookTo];
+            removePiece(rookTo);
+            placePiece(rookFrom, rook);
+        }
+
+        castlingRights = (int) ((record >>> CASTLING_SHIFT) & 15);
+        enPassantSquare = (int) ((record >>> EN_PASSANT_SHIFT) & 127) - 1;
+    }
+
+    /**
+     * Checks whether any piece of the given team attacks a square. The check works
+     * outward from the square itself: a pawn, knight or king attacks it if one sits on
+     * the matching table entry, and a slider attacks it if the first piece along a ray
+     * is a rook, bishop or queen of the right kind.
+     *
+     * @param position the square being tested
+     * @param attackingTeam the team whose attacks count
+     * @return true if at least one piece of attackingTeam attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor attackingTeam) {
+        return isSquareAttacked(squareOf(position), attackingTeam);
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor attackingTeam) {
+        int team = attackingTeam.ordinal() * 6;
+        // A pawn attacks this square from wherever a defending pawn here would attack
+        int defender = attackingTeam == ChessGame.TeamColor.WHITE ? 1 : 0;
+        if ((Attacks.PAWN[defender][square] & pieceBoards[team + ChessPiece.PieceType.PAWN.ordinal()]) != 0
+                || (Attacks.KNIGHT[square] & pieceBoards[team + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0
+                || (Attacks.KING[square] & pieceBoards[team + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+        long queens = pieceBoards[team + ChessPiece.PieceType.QUEEN.ordinal()];
+        long straight = pieceBoards[team + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        long diagonal = pieceBoards[team + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        return (straight != 0 && (Attacks.rookAttacks(square, occupied) & straight) != 0)
+                || (diagonal != 0 && (Attacks.bishopAttacks(square, occupied) & diagonal) != 0);
+    }
+
+    /**
+     * Finds every piece of a team that attacks a square, treating only the squares in
+     * occupied as blockers. Passing a modified occupancy answers "would this square be
+     * attacked if these pieces moved", e.g. with the king lifted off its own square.
+     *
+     * @return bitboard of the attacking pieces
+     */
+    long attackersOf(int square, ChessGame.TeamColor attackingTeam, long occupied) {
+        int team = attackingTeam.ordinal() * 6;
+        int defender = attackingTeam == ChessGame.TeamColor.WHITE ? 1 : 0;
+        long queens = pieceBoards[team + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (Attacks.PAWN[defender][square] & pieceBoards[team + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Attacks.KNIGHT[square] & pieceBoards[team + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Attacks.KING[square] & pieceBoards[team + ChessPiece.PieceType.KING.ordinal()])
+                | (Attacks.rookAttacks(square, occupied) & (pieceBoards[team + ChessPiece.PieceType.ROOK.ordinal()] | queens))
+                | (Attacks.bishopAttacks(square, occupied) & (pieceBoards[team + ChessPiece.PieceType.BISHOP.ordinal()] | queens));
+    }
+
+    /**
+     * @return the castling rights still available, as a mask of {@link #WHITE_KINGSIDE},
+     * {@link #WHITE_QUEENSIDE}, {@link #BLACK_KINGSIDE} and {@link #BLACK_QUEENSIDE}
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights & ALL_CASTLING_RIGHTS;
+    }
+
+    /**
+     * @return the square a pawn skipped over with a two-square advance on the last move,
+     * or null if en passant is not available
+     */
+    public ChessPosition getEnPassantPosition() {
+        return enPassantSquare < 0 ? null : ChessPosition.of(enPassantSquare);
+    }
+
+    public void setEnPassantPosition(ChessPosition position) {
+        this.enPassantSquare = position == null ? -1 : squareOf(position);
+    }
+
+    /**
+     * Returns a 64-bit Zobrist key for the pieces, castling rights and en passant file.
+     * The en passant file only counts when a pawn is actually there to capture, so
+     * positions that play identically share a key. The side to move is not part of the
+     * board; {@link ChessGame#getPositionKey()} mixes it in.
+     */
+    public long getZobristKey() {
+        long key = pieceKey ^ Zobrist.CASTLING[castlingRights];
+        if (enPassantSquare >= 0) {
+            // A target on row 3 means white just pushed, so black pawns are the capturers
+            ChessGame.TeamColor pusher = enPassantSquare < 32 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            ChessGame.TeamColor capturer = pusher == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            if ((Attacks.PAWN[pusher.ordinal()][enPassantSquare] & getPieces(capturer, ChessPiece.PieceType.PAWN)) != 0) {
+                key ^= Zobrist.EN_PASSANT_FILE[enPassantSquare & 7];
+            }
+        }
+        return key;
+    }
+
+    private void pushUndo(long record, ChessPiece piece, ChessPiece captured) {
+        if (undoRecords == null) {
+            undoRecords = new long[64];
+            undoPieces = new ChessPiece[128];
+        } else if (undoCount == undoRecords.length) {
+            undoRecords = Arrays.copyOf(undoRecords, undoCount * 2);
+            undoPieces = Arrays.copyOf(undoPieces, undoCount * 4);
+        }
+        undoRecords[undoCount] = record;
+        undoPieces[2 * undoCount] = piece;
+        undoPieces[2 * undoCount + 1] = captured;
+        undoCount++;
+    }
+
+    /**
+     * @return the piece on a square index (0 = a1 ... 63 = h8), or null if it is empty
+     */
+    ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @return bitboard of every piece of the given team and type
+     */
+    long getPieces(ChessGame.TeamColor teamColor, ChessPiece.PieceType pieceType) {
+        return pieceBoards[pieceIndex(teamColor, pieceType)];
+    }
+
+    /**
+     * @return bitboard of every piece belonging to the given team
+     */
+    long getTeamPieces(ChessGame.TeamColor teamColor) {
+        return teamBoards[teamColor.ordinal()];
+    }
+
+    int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    int getEndgameScore() {
+        return endgameScore;
+    }
+
+    int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    long getOccupied() {
+        return occupied;
+    }
+
+    static int squareOf(ChessPosition position) {
+        return squareOf(position.getRow(), position.getColumn());
+    }
+
+    static int squareOf(int row, int column) {
+        return (row - 1) * 8 + (column - 1);
+    }
+
+    static ChessPosition positionOf(int square) {
+        return ChessPosition.of(square);
+    }
+
+    static int pieceIndex(ChessGame.TeamColor teamColor, ChessPiece.PieceType pieceType) {
+        return teamColor.ordinal() * 6 + pieceType.ordinal();
+    }
+
+    private void placePiece(int square, ChessPiece piece) {
+        long bit = 1L << square;
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBoards[index] |= bit;
+        pieceKey ^= Zobrist.PIECES[index][square];
+        middlegameScore += Evaluation.MIDDLEGAME[index][square];
+        endgameScore += Evaluation.ENDGAME[index][square];
+        phase += Evaluation.PHASE_WEIGHTS[piece.getPieceType().ordinal()];
+        teamBoards[piece.getTeamColor().ordinal()] |= bit;
+        occupied |= bit;
+        squares[square] = piece;
+    }
+
+    private void removePiece(int square) {
+        ChessPiece piece = squares[square];
+        if (piece == null) {
+            return;
+        }
+        long bit = 1L << square;
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBoards[index] &= ~bit;
+        pieceKey ^= Zobrist.PIECES[index][square];
+        middlegameScore -= Evaluation.MIDDLEGAME[index][square];
+        endgameScore -= Evaluation.ENDGAME[index][square];
+        phase -= Evaluation.PHASE_WEIGHTS[piece.getPieceType().ordinal()];
+        teamBoards[piece.getTeamColor().ordinal()] &= ~bit;
+        occupied &= ~bit;
+        squares[square] = null;
     }
 
     @Override
@@ -56,59 +407,65 @@ public class ChessBoard {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
-        // Compare every piece on the board for equality
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece thisPiece = this.squares[row][col];
-                ChessPiece thatPiece = that.squares[row][col];
-                if (!Objects.equals(thisPiece, thatPiece)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        // Two boards are equal when every team/type bitboard matches; differing keys rule it out early
+        return this.pieceKey == that.pieceKey && Arrays.equals(this.pieceBoards, that.pieceBoards);
     }
 
     @Override
     public int hashCode() {
-        // Use a deep hash code to incorporate all pieces in the board
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(pieceKey);
+    }
+
+    /**
+     * Empties the board in place, with no castling rights or en passant square, so it can
+     * be filled again without allocating.
+     */
+    void clear() {
+        Arrays.fill(pieceBoards, 0L);
+        Arrays.fill(teamBoards, 0L);
+        occupied = 0L;
+        pieceKey = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        Arrays.fill(squares, null);
+        castlingRights = 0;
+        enPassantSquare = -1;
+        undoCount = 0;
     }
 
     public void resetBoard() {
-        // Clear the board
-        for (int row = 0; row < squares.length; row++) {
-            Arrays.fill(squares[row], null);
-        }
+        clear();
+        castlingRights = ALL_CASTLING_RIGHTS;
 
         // Set up the white pieces
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
 
         // Set up the white pawns
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, col), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
 
         // Set up the black pawns
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(7, col), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         // Set up the black pieces
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
     }
 }
@@ -1,24 +1,46 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 public class ChessGame {
     private ChessBoard board;
     private TeamColor currentPlayer;
 
+    // Position key and halfmove clock after every move made through this game, starting
+    // with the position it was set up in; the last entry is the current position
+    private long[] positionKeys = new long[16];
+    private int[] halfmoveClocks = new int[16];
+    private int positionCount;
+    // Halfmoves since the start of the game, including any before the position was set up
+    private int gamePly;
+
+    // Status of the current position; dropped on every move, and also recomputed if the
+    // board is edited directly and the position key no longer matches
+    private transient GameStatus status;
+    private transient long statusKey;
+    private transient LegalMoveCache moveCache;
+
     public ChessGame() {
         this.board = new ChessBoard();
         this.board.resetBoard(); // Initialize the board with the starting positions
         this.currentPlayer = TeamColor.WHITE;
+        this.positionKeys[0] = board.getZobristKey();
+        this.positionCount = 1;
     }
 
     public TeamColor getTeamTurn() {
         return this.currentPlayer;
     }
 
+    /**
+     * Sets whose turn it is. The halfmove clock, full move number and earlier positions
+     * are kept; only the current position's key follows the change.
+     */
     public void setTeamTurn(TeamColor team) {
         this.currentPlayer = team;
+        refreshCurrentPosition();
     }
 
     public enum TeamColor {
@@ -32,291 +54,257 @@ public class ChessGame {
             return new ArrayList<>();
         }
 
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, startPosition);
+        // The team's moves are generated once per position and boxed only on the way out
         Collection<ChessMove> validMoves = new ArrayList<>();
-
-        TeamColor originalPlayer = currentPlayer;  // Save the original current player
-        currentPlayer = piece.getTeamColor();      // Temporarily set currentPlayer to the piece's color
-
-        for (ChessMove move : possibleMoves) {
-            if (isMoveLegal(move)) {
-                validMoves.add(move);
-            }
-        }
-
-        currentPlayer = originalPlayer; // Reset currentPlayer to the original value
-
+        moveCache().addMoves(board, piece.getTeamColor(), ChessBoard.squareOf(startPosition), validMoves);
         return validMoves;
     }
 
-    private boolean isMoveLegal(ChessMove move) {
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        if (piece == null) {
-            return false;
+    public void makeMove(ChessMove move) throws InvalidMoveException {
+        if (!isValidMove(move)) {
+            throw new InvalidMoveException("Invalid move");
         }
-        TeamColor teamColor = piece.getTeamColor();
+        playMove(Move.of(move));
+    }
+
+    /**
+     * Plays a packed move (see {@link Move}) already known to be legal for the side to
+     * move, without checking it again.
+     */
+    void playMove(int move) {
+        // Pawn moves and captures can never be undone over the board, so they reset the clock
+        boolean irreversible = board.getPiece(Move.from(move)).getPieceType() == ChessPiece.PieceType.PAWN
+                || board.getPiece(Move.to(move)) != null;
 
-        // Create a temporary board to simulate the move
-        ChessBoard tempBoard = new ChessBoard(board);
-        tempBoard.addPiece(move.getEndPosition(), tempBoard.getPiece(move.getStartPosition()));
-        tempBoard.addPiece(move.getStartPosition(), null);
+        // The board handles promotion, castling and en passant captures
+        board.makeMove(move);
 
-        // Check if the move results in the king of the moving piece's team being in check
-        return !isInCheckOnBoard(teamColor, tempBoard);
+        // Toggle currentPlayer to the next player
+        currentPlayer = opponent(currentPlayer);
+        gamePly++;
+        pushPosition(irreversible ? 0 : getHalfmoveClock() + 1);
     }
 
-    private boolean isInCheckOnBoard(TeamColor teamColor, ChessBoard tempBoard) {
-        ChessPosition kingPosition = findKingPositionOnBoard(teamColor, tempBoard);
-        if (kingPosition == null) {
-            return false;
+    /**
+     * Takes back the last move made with {@link #makeMove(ChessMove)} and returns the
+     * turn to the player who made it.
+     *
+     * @throws IllegalStateException if no move has been made on the current board
+     */
+    public void undoMove() {
+        board.unmakeMove();
+        currentPlayer = opponent(currentPlayer);
+        if (positionCount > 1) {
+            positionCount--;
         }
-
-        for (ChessPiece piece : getAllPiecesOfOpposingTeamOnBoard(teamColor, tempBoard)) {
-            Collection<ChessMove> moves = piece.pieceMoves(tempBoard, piece.getCurrentPosition());
-            for (ChessMove move : moves) {
-                if (move.getEndPosition().equals(kingPosition)) {
-                    return true;
-                }
-            }
+        if (gamePly > 0) {
+            gamePly--;
         }
-        return false;
+        invalidateCaches();
     }
 
-    private ChessPosition findKingPositionOnBoard(TeamColor teamColor, ChessBoard tempBoard) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = tempBoard.getPiece(position);
-                if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING && piece.getTeamColor() == teamColor) {
-                    return position;
-                }
-            }
-        }
-        return null;
+    /**
+     * @return the number of the current full move, starting at 1 and going up after each
+     * move by black
+     */
+    public int getFullmoveNumber() {
+        return gamePly / 2 + 1;
     }
 
-    private Collection<ChessPiece> getAllPiecesOfOpposingTeamOnBoard(TeamColor teamColor, ChessBoard tempBoard) {
-        Collection<ChessPiece> opposingPieces = new ArrayList<>();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = tempBoard.getPiece(position);
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    opposingPieces.add(piece);
-                }
-            }
-        }
-        return opposingPieces;
+    /**
+     * @return the number of halfmoves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClocks[positionCount - 1];
     }
 
-    public void makeMove(ChessMove move) throws InvalidMoveException {
-        if (!isValidMove(move)) {
-            throw new InvalidMoveException("Invalid move");
-        }
-
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        // Check for pawn promotion
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            int promotionRow = piece.getTeamColor() == TeamColor.WHITE ? 8 : 1;
-            if (move.getEndPosition().getRow() == promotionRow) {
-                // Replace the pawn with the promoted piece
-                ChessPiece promotedPiece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
-                board.addPiece(move.getEndPosition(), promotedPiece);
-                board.addPiece(move.getStartPosition(), null);
-            } else {
-                // Execute the move for non-promotion cases
-                board.addPiece(move.getEndPosition(), piece);
-                board.addPiece(move.getStartPosition(), null);
+    /**
+     * Checks whether the current position has now occurred three times with the same
+     * player to move. Only positions since the last capture or pawn move can match, and
+     * only every other one has the same side to move, so this compares at most
+     * half the halfmove clock's worth of stored keys.
+     */
+    public boolean isDrawByRepetition() {
+        int current = positionCount - 1;
+        long key = positionKeys[current];
+        int oldest = Math.max(0, current - halfmoveClocks[current]);
+        int repetitions = 1;
+        for (int i = current - 2; i >= oldest; i -= 2) {
+            if (positionKeys[i] == key && ++repetitions == 3) {
+                return true;
             }
-        } else {
-            // Execute the move for non-pawn pieces
-            board.addPiece(move.getEndPosition(), piece);
-            board.addPiece(move.getStartPosition(), null);
         }
+        return false;
+    }
 
-        // Toggle currentPlayer to the next player
-        currentPlayer = (currentPlayer == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    /**
+     * @return true once fifty moves by each player have passed without a capture or pawn move
+     */
+    public boolean isDrawByFiftyMoveRule() {
+        return getHalfmoveClock() >= 100;
     }
 
-    private boolean isValidMove(ChessMove move) {
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        if (piece == null || piece.getTeamColor() != currentPlayer) {
-            return false;
-        }
+    /**
+     * @return the position keys since the last capture or pawn move, oldest first and
+     * ending with the current position; the only ones a later position can repeat
+     */
+    long[] recentPositionKeys() {
+        int current = positionCount - 1;
+        return Arrays.copyOfRange(positionKeys, Math.max(0, current - halfmoveClocks[current]), positionCount);
+    }
 
-        if (!piece.pieceMoves(board, move.getStartPosition()).contains(move)) {
-            return false;
+    /**
+     * Sets up a position loaded from storage, replacing the whole history: the board, the
+     * player to move, the keys of the earlier positions since the last capture or pawn
+     * move (oldest first), the halfmove clock and the full move number.
+     */
+    void resetPosition(ChessBoard board, TeamColor turn, long[] earlierKeys, int halfmoveClock,
+                       int fullmoveNumber) {
+        this.board = board;
+        this.currentPlayer = turn;
+        gamePly = 2 * (fullmoveNumber - 1) + (turn == TeamColor.BLACK ? 1 : 0);
+        int count = earlierKeys.length + 1;
+        if (positionKeys.length < count) {
+            positionKeys = new long[count * 2];
+            halfmoveClocks = new int[count * 2];
         }
-        if (!isPathClear(move)) {
-            return false;
+        System.arraycopy(earlierKeys, 0, positionKeys, 0, earlierKeys.length);
+        for (int i = 0; i < count; i++) {
+            halfmoveClocks[i] = Math.max(0, halfmoveClock - (count - 1 - i));
         }
+        positionKeys[count - 1] = getPositionKey();
+        positionCount = count;
+        invalidateCaches();
+    }
 
-        // Simulate the move and check for check
-        ChessPiece targetPiece = board.getPiece(move.getEndPosition());
-        board.addPiece(move.getEndPosition(), piece);
-        board.addPiece(move.getStartPosition(), null);
-        boolean inCheck = isInCheck(currentPlayer);
-        board.addPiece(move.getStartPosition(), piece);
-        board.addPiece(move.getEndPosition(), targetPiece);
+    // The board or side to move was edited in place, so the current entry's key must follow
+    private void refreshCurrentPosition() {
+        positionKeys[positionCount - 1] = getPositionKey();
+        invalidateCaches();
+    }
 
-        return !inCheck;
+    private void pushPosition(int halfmoveClock) {
+        if (positionCount == positionKeys.length) {
+            positionKeys = Arrays.copyOf(positionKeys, positionCount * 2);
+            halfmoveClocks = Arrays.copyOf(halfmoveClocks, positionCount * 2);
+        }
+        invalidateCaches();
+        positionKeys[positionCount] = getPositionKey();
+        halfmoveClocks[positionCount] = halfmoveClock;
+        positionCount++;
     }
 
-    private boolean isPathClear(ChessMove move) {
+    private boolean isValidMove(ChessMove move) {
         ChessPiece piece = board.getPiece(move.getStartPosition());
-        if (piece == null) {
+        if (piece == null || piece.getTeamColor() != currentPlayer) {
             return false;
         }
-
-        int startRow = move.getStartPosition().getRow();
-        int startColumn = move.getStartPosition().getColumn();
-        int endRow = move.getEndPosition().getRow();
-        int endColumn = move.getEndPosition().getColumn();
-
-        int rowStep = Integer.compare(endRow, startRow);
-        int columnStep = Integer.compare(endColumn, startColumn);
-
-        // For Knight, path is always clear as it jumps over pieces
-        if (piece.getPieceType() == ChessPiece.PieceType.KNIGHT) {
-            return true;
-        }
-
-        int currentRow = startRow + rowStep;
-        int currentColumn = startColumn + columnStep;
-
-        // Check each square along the path for other pieces
-        while (currentRow != endRow || currentColumn != endColumn) {
-            if (board.getPiece(new ChessPosition(currentRow, currentColumn)) != null) {
-                return false; // Path is not clear
-            }
-            currentRow += rowStep;
-            currentColumn += columnStep;
-        }
-
-        return true; // Path is clear
+        return validMoves(move.getStartPosition()).contains(move);
     }
 
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = findKingPosition(teamColor);
-        if (kingPosition == null) {
-            // Handle the case where the King is not found (e.g., return false or handle appropriately)
+        long kings = board.getPieces(teamColor, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            // No king on the board (e.g. a partial test position), so it can't be in check
             return false;
         }
-        for (ChessPiece piece : getAllPiecesOfOpposingTeam(teamColor)) {
-            Collection<ChessMove> moves = piece.pieceMoves(board, piece.getCurrentPosition());
-            for (ChessMove move : moves) {
-                if (move.getEndPosition().equals(kingPosition)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return board.isSquareAttacked(Long.numberOfTrailingZeros(kings), opponent(teamColor));
     }
 
     public boolean isInCheckmate(TeamColor teamColor) {
-        // First, check if the team is currently in check.
-        if (!isInCheck(teamColor)) {
-            return false;
+        if (teamColor == currentPlayer) {
+            return getStatus().isCheckmate();
         }
+        // Checkmate means being in check with no valid move to escape it
+        return isInCheck(teamColor) && !hasValidMove(teamColor);
+    }
 
-        // Get all pieces for the team in check.
-        Collection<ChessPiece> teamPieces = getAllPiecesOfTeam(teamColor);
-
-        // Iterate over all pieces and check if any move can escape the check.
-        for (ChessPiece piece : teamPieces) {
-            Collection<ChessMove> moves = piece.pieceMoves(board, piece.getCurrentPosition());
-            for (ChessMove move : moves) {
-                if (isValidMove(move)) {
-                    return false; // There's at least one valid move that can potentially escape the check.
-                }
-            }
+    public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == currentPlayer) {
+            return getStatus().isStalemate();
         }
-
-        // If no valid moves are available, the team is in checkmate.
-        return true;
+        // Stalemate means not being in check but having no valid move
+        return !isInCheck(teamColor) && !hasValidMove(teamColor);
     }
 
-    private Collection<ChessPiece> getAllPiecesOfTeam(TeamColor teamColor) {
-        Collection<ChessPiece> teamPieces = new ArrayList<>();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPosition position = new ChessPosition(row + 1, col + 1);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    teamPieces.add(piece);
-                }
-            }
+    /**
+     * Works out check, the number of legal moves, checkmate, stalemate and the draw
+     * conditions for the team to move in a single pass. The result is cached, so asking
+     * again before the position changes costs nothing.
+     */
+    public GameStatus getStatus() {
+        long key = getPositionKey();
+        if (status == null || statusKey != key) {
+            status = new GameStatus(currentPlayer, isInCheck(currentPlayer), moveCache().count(board, currentPlayer),
+                    hasInsufficientMaterial(), isDrawByRepetition(), isDrawByFiftyMoveRule());
+            statusKey = key;
         }
-        return teamPieces;
+        return status;
     }
 
-    public boolean isInStalemate(TeamColor teamColor) {
-        // If the team is in check, it's not a stalemate.
-        if (isInCheck(teamColor)) {
+    // Bare kings, a single minor piece, or only bishops that all stand on one square colour
+    private boolean hasInsufficientMaterial() {
+        long heavy = 0;
+        long knights = 0;
+        long bishops = 0;
+        for (TeamColor team : TeamColor.values()) {
+            heavy |= board.getPieces(team, ChessPiece.PieceType.PAWN) | board.getPieces(team, ChessPiece.PieceType.ROOK)
+                    | board.getPieces(team, ChessPiece.PieceType.QUEEN);
+            knights |= board.getPieces(team, ChessPiece.PieceType.KNIGHT);
+            bishops |= board.getPieces(team, ChessPiece.PieceType.BISHOP);
+        }
+        if (heavy != 0) {
             return false;
         }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        long lightSquares = 0x55AA55AA55AA55AAL;
+        return knights == 0 && ((bishops & lightSquares) == 0 || (bishops & ~lightSquares) == 0);
+    }
 
-        // Remember the original current player
-        TeamColor originalCurrentPlayer = currentPlayer;
-
-        // Set the current player to the team being checked for stalemate
-        setTeamTurn(teamColor);
-
-        // Get all pieces for the team.
-        Collection<ChessPiece> teamPieces = getAllPiecesOfTeam(teamColor);
+    private boolean hasValidMove(TeamColor teamColor) {
+        return moveCache().count(board, teamColor) > 0;
+    }
 
-        // Iterate over all pieces and check if any move is possible.
-        for (ChessPiece piece : teamPieces) {
-            Collection<ChessMove> moves = piece.pieceMoves(board, piece.getCurrentPosition());
-            for (ChessMove move : moves) {
-                if (isValidMove(move)) {
-                    // Reset the current player to the original
-                    setTeamTurn(originalCurrentPlayer);
-                    return false; // There's at least one valid move, so it's not a stalemate.
-                }
-            }
+    // Called whenever the position changes through this game
+    private void invalidateCaches() {
+        status = null;
+        if (moveCache != null) {
+            moveCache.clear();
         }
+    }
 
-        // Reset the current player to the original
-        setTeamTurn(originalCurrentPlayer);
+    private LegalMoveCache moveCache() {
+        if (moveCache == null) {
+            moveCache = new LegalMoveCache();
+        }
+        return moveCache;
+    }
 
-        // If no valid moves are available for any piece, it's a stalemate.
-        return true;
+    /**
+     * @return a 64-bit Zobrist key identifying the position: the board's pieces, castling
+     * rights and en passant file, plus the side to move
+     */
+    public long getPositionKey() {
+        long key = board.getZobristKey();
+        return currentPlayer == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
     }
 
+    /**
+     * Replaces the board. The halfmove clock, full move number and earlier positions are
+     * kept; only the current position's key follows the change.
+     */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        refreshCurrentPosition();
     }
 
     public ChessBoard getBoard() {
         return this.board;
     }
 
-    private ChessPosition findKingPosition(TeamColor teamColor) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPosition position = new ChessPosition(row + 1, col + 1);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING && piece.getTeamColor() == teamColor) {
-                    return position;
-                }
-            }
-        }
-        // Return null if the King is not found
-        return null;
-    }
-
-    private Collection<ChessPiece> getAllPiecesOfOpposingTeam(TeamColor teamColor) {
-        Collection<ChessPiece> opposingPieces = new ArrayList<>();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPosition position = new ChessPosition(row + 1, col + 1);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    opposingPieces.add(piece);
-                }
-            }
-        }
-        return opposingPieces;
+    private static TeamColor opponent(TeamColor teamColor) {
+        return (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
 }
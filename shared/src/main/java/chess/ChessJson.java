@@ -0,0 +1,290 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * JSON for the chess model, written and read by hand with Gson's streaming API instead
+ * of reflection.
+ * <p>
+ * A board is written as an object whose {@code pieces} string holds one character per
+ * square from a1 to h8 ({@code KQBNRP} for white, lower case for black, {@code .} for
+ * empty), beside its castling rights and en passant square. A game adds the side to
+ * move, the halfmove clock and the full move number:
+ * <pre>
+ * {"board":{"pieces":"RNBQKBNRPPPPPPPP....","castlingRights":15,"enPassantSquare":-1},
+ *  "currentPlayer":"WHITE","halfmoveClock":0,"fullmoveNumber":1}
+ * </pre>
+ * Reading also accepts the older reflective format, whose board holds a {@code squares}
+ * array of piece objects, either flat or as eight rows, and no castling rights.
+ */
+public final class ChessJson {
+    private static final String PIECE_LETTERS = "KQBNRPkqbnrp";
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private static final TypeAdapter<ChessPiece> PIECE_ADAPTER = new PieceAdapter().nullSafe();
+    private static final TypeAdapter<ChessBoard> BOARD_ADAPTER = new BoardAdapter().nullSafe();
+    private static final TypeAdapter<ChessGame> GAME_ADAPTER = new GameAdapter().nullSafe();
+    private static final Gson GSON = register(new GsonBuilder()).create();
+
+    private ChessJson() {
+    }
+
+    /**
+     * @return the shared Gson instance with the chess adapters registered; Gson instances
+     * are thread-safe, so everyone can use this one
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * Adds the chess adapters to a builder, for callers that need their own Gson settings.
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder.registerTypeAdapter(ChessPiece.class, PIECE_ADAPTER)
+                .registerTypeAdapter(ChessBoard.class, BOARD_ADAPTER)
+                .registerTypeAdapter(ChessGame.class, GAME_ADAPTER);
+    }
+
+    private static final class PieceAdapter extends TypeAdapter<ChessPiece> {
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            out.beginObject();
+            out.name("teamColor").value(piece.getTeamColor().name());
+            out.name("pieceType").value(piece.getPieceType().name());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            ChessGame.TeamColor team = null;
+            ChessPiece.PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "teamColor" -> team = ChessGame.TeamColor.valueOf(in.nextString());
+                    case "pieceType" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (team == null || type == null) {
+                throw new JsonParseException("Piece needs a teamColor and a pieceType at " + in.getPath());
+            }
+            return ChessPiece.of(team, type);
+        }
+    }
+
+    private static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            char[] pieces = new char[64];
+            for (int square = 0; square < 64; square++) {
+                ChessPiece piece = board.getPiece(square);
+                pieces[square] = piece == null ? '.'
+                        : PIECE_LETTERS.charAt(ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+            }
+            ChessPosition enPassant = board.getEnPassantPosition();
+            out.beginObject();
+            out.name("pieces").value(new String(pieces));
+            out.name("castlingRights").value(board.getCastlingRights());
+            out.name("enPassantSquare").value(enPassant == null ? -1 : ChessBoard.squareOf(enPassant));
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            ChessBoard board = new ChessBoard();
+            boolean legacySquares = false;
+            boolean castlingRights = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "pieces" -> readPieces(in, board);
+                    case "squares" -> {
+                        readLegacySquares(in, board);
+                        legacySquares = true;
+                    }
+                    case "castlingRights" -> {
+                        board.setCastlingRights(in.nextInt());
+                        castlingRights = true;
+                    }
+                    case "enPassantSquare" -> {
+                        int square = in.nextInt();
+                        board.setEnPassantPosition(square >= 0 && square < 64 ? ChessBoard.positionOf(square) : null);
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            // The oldest boards kept no castling rights, so allow only the ones whose king
+            // and rook still stand on their home squares
+            if (legacySquares && !castlingRights) {
+                board.setCastlingRights(homeCastlingRights(board, ChessGame.TeamColor.WHITE)
+                        | homeCastlingRights(board, ChessGame.TeamColor.BLACK));
+            }
+            return board;
+        }
+
+        private static int homeCastlingRights(ChessBoard board, ChessGame.TeamColor team) {
+            boolean white = team == ChessGame.TeamColor.WHITE;
+            int rookHome = white ? 0 : 56;
+            if ((board.getPieces(team, ChessPiece.PieceType.KING) & (1L << (rookHome + 4))) == 0) {
+                return 0;
+            }
+            long rooks = board.getPieces(team, ChessPiece.PieceType.ROOK);
+            int rights = 0;
+            if ((rooks & (1L << (rookHome + 7))) != 0) {
+                rights |= white ? ChessBoard.WHITE_KINGSIDE : ChessBoard.BLACK_KINGSIDE;
+            }
+            if ((rooks & (1L << rookHome)) != 0) {
+                rights |= white ? ChessBoard.WHITE_QUEENSIDE : ChessBoard.BLACK_QUEENSIDE;
+            }
+            return rights;
+        }
+
+        private static void readPieces(JsonReader in, ChessBoard board) throws IOException {
+            String path = in.getPath();
+            String pieces = in.nextString();
+            if (pieces.length() != 64) {
+                throw new JsonParseException("Board needs 64 squares but has " + pieces.length() + " at " + path);
+            }
+            for (int square = 0; square < 64; square++) {
+                char letter = pieces.charAt(square);
+                if (letter == '.') {
+                    continue;
+                }
+                int index = PIECE_LETTERS.indexOf(letter);
+                if (index < 0) {
+                    throw new JsonParseException("Unknown piece '" + letter + "' on square " + square + " at " + path);
+                }
+                board.addPiece(ChessBoard.positionOf(square),
+                        ChessPiece.of(ChessGame.TeamColor.values()[index / 6], PIECE_TYPES[index % 6]));
+            }
+        }
+
+        // Either 64 squares from a1, or eight rows of eight starting with row 1
+        private static void readLegacySquares(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            int square = 0;
+            while (in.hasNext()) {
+                if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                    in.beginArray();
+                    int rowStart = square;
+                    while (in.hasNext()) {
+                        readLegacySquare(in, board, square++);
+                    }
+                    in.endArray();
+                    square = rowStart + 8;
+                } else {
+                    readLegacySquare(in, board, square++);
+                }
+            }
+            in.endArray();
+        }
+
+        private static void readLegacySquare(JsonReader in, ChessBoard board, int square) throws IOException {
+            ChessPiece piece = PIECE_ADAPTER.read(in);
+            if (piece != null) {
+                if (square >= 64) {
+                    throw new JsonParseException("Board has more than 64 squares at " + in.getPath());
+                }
+                board.addPiece(ChessBoard.positionOf(square), piece);
+            }
+        }
+    }
+
+    private static final class GameAdapter extends TypeAdapter<ChessGame> {
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            out.name("board");
+            BOARD_ADAPTER.write(out, game.getBoard());
+            out.name("currentPlayer").value(game.getTeamTurn().name());
+            out.name("halfmoveClock").value(game.getHalfmoveClock());
+            out.name("fullmoveNumber").value(game.getFullmoveNumber());
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            ChessBoard board = null;
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+            int halfmoveClock = 0;
+            int fullmoveNumber = 1;
+            // The reflective format's repetition history
+            long[] positionKeys = null;
+            int[] halfmoveClocks = null;
+            int positionCount = 0;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "board" -> board = BOARD_ADAPTER.read(in);
+                    case "currentPlayer" -> turn = ChessGame.TeamColor.valueOf(in.nextString());
+                    case "halfmoveClock" -> halfmoveClock = in.nextInt();
+                    case "fullmoveNumber" -> {
+                        fullmoveNumber = in.nextInt();
+                        if (fullmoveNumber < 1) {
+                            throw new JsonParseException("Invalid full move number " + fullmoveNumber + " at " + in.getPath());
+                        }
+                    }
+                    case "positionKeys" -> positionKeys = readLongs(in);
+                    case "halfmoveClocks" -> halfmoveClocks = readInts(in);
+                    case "positionCount" -> positionCount = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            ChessGame game = new ChessGame();
+            long[] earlierKeys = new long[0];
+            if (positionKeys != null && halfmoveClocks != null && positionCount > 0
+                    && positionCount <= Math.min(positionKeys.length, halfmoveClocks.length)) {
+                halfmoveClock = halfmoveClocks[positionCount - 1];
+                int oldest = Math.max(0, positionCount - 1 - halfmoveClock);
+                earlierKeys = Arrays.copyOfRange(positionKeys, oldest, positionCount - 1);
+            }
+            game.resetPosition(board != null ? board : game.getBoard(), turn, earlierKeys, halfmoveClock,
+                    fullmoveNumber);
+            return game;
+        }
+
+        private static long[] readLongs(JsonReader in) throws IOException {
+            long[] values = new long[16];
+            int count = 0;
+            in.beginArray();
+            while (in.hasNext()) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                values[count++] = in.nextLong();
+            }
+            in.endArray();
+            return Arrays.copyOf(values, count);
+        }
+
+        private static int[] readInts(JsonReader in) throws IOException {
+            int[] values = new int[16];
+            int count = 0;
+            in.beginArray();
+            while (in.hasNext()) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                values[count++] = in.nextInt();
+            }
+            in.endArray();
+            return Arrays.copyOf(values, count);
+        }
+    }
+}
@@ -4,9 +4,13 @@ import java.util.Objects;
 
 public class ChessMove {
 
-    private ChessPosition startPosition;
-    private ChessPosition endPosition;
-    private ChessPiece.PieceType promotionPiece;
+    // Canonical instances indexed by (from square * 64 + to square) * 5 + promotion slot,
+    // filled in lazily; moves are immutable, so a racing fill just creates an equal twin
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * 5];
+
+    private final ChessPosition startPosition;
+    private final ChessPosition endPosition;
+    private final ChessPiece.PieceType promotionPiece;
 
     @Override
     public boolean equals(Object o) {
@@ -20,7 +24,10 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        // Same value as Objects.hash(startPosition, endPosition, promotionPiece), without the varargs array
+        int result = 31 + Objects.hashCode(startPosition);
+        result = 31 * result + Objects.hashCode(endPosition);
+        return 31 * result + Objects.hashCode(promotionPiece);
     }
 
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition, ChessPiece.PieceType promotionPiece) {
@@ -30,6 +37,49 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Returns a shared instance for a move between two on-board squares, so move
+     * generation doesn't allocate. Anything else (off-board squares, a king or pawn as the
+     * promotion piece) still gets a fresh instance.
+     *
+     * @return a move equal to {@code new ChessMove(startPosition, endPosition, promotionPiece)}
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition, ChessPiece.PieceType promotionPiece) {
+        int slot = promotionSlot(promotionPiece);
+        if (slot < 0 || !onBoard(startPosition) || !onBoard(endPosition)) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(ChessBoard.squareOf(startPosition), ChessBoard.squareOf(endPosition), promotionPiece);
+    }
+
+    static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        int index = (from * 64 + to) * 5 + promotionSlot(promotionPiece);
+        ChessMove move = MOVES[index];
+        if (move == null) {
+            move = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotionPiece);
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
+    private static int promotionSlot(ChessPiece.PieceType promotionPiece) {
+        if (promotionPiece == null) {
+            return 0;
+        }
+        return switch (promotionPiece) {
+            case QUEEN -> 1;
+            case ROOK -> 2;
+            case BISHOP -> 3;
+            case KNIGHT -> 4;
+            default -> -1;
+        };
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position != null && position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
 
     public ChessPosition getStartPosition() {
         return startPosition;
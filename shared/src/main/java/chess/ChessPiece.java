@@ -14,15 +14,33 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
-    private ChessGame.TeamColor teamColor;
-    private PieceType pieceType;
-    private ChessPosition currentPosition;
+    // Canonical instance per team and type, indexed like ChessBoard's bitboards
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[ChessBoard.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    private final ChessGame.TeamColor teamColor;
+    private final PieceType pieceType;
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.teamColor = pieceColor;
         this.pieceType = type;
     }
 
+    /**
+     * Returns the shared instance for a team and type. The board and move generation use
+     * these so that placing, promoting and copying pieces never allocates.
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -50,14 +68,6 @@ public class ChessPiece {
         return this.pieceType;
     }
 
-    public void setCurrentPosition(ChessPosition position) {
-        this.currentPosition = position;
-    }
-
-    public ChessPosition getCurrentPosition() {
-        return currentPosition;
-    }
-
     /**
      * Calculates all the positions a chess piece can move to
      * Does not take into account moves that are illegal due to leaving the king in
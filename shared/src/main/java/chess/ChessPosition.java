@@ -1,9 +1,16 @@
 package chess;
 
-import java.util.Objects;
-
 public class ChessPosition {
 
+    // Canonical instances for the 64 on-board squares, indexed like ChessBoard squares
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -17,7 +24,8 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        // Same value as Objects.hash(row, col), without the varargs array
+        return 31 * (31 + row) + col;
     }
 
     public ChessPosition(int row, int col) {
@@ -25,6 +33,25 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Returns the shared instance for an on-board square, so hot paths don't allocate.
+     * Off-board coordinates still get a fresh instance.
+     *
+     * @param row the row, 1-8
+     * @param col the column, 1-8
+     * @return a position equal to {@code new ChessPosition(row, col)}
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    static ChessPosition of(int square) {
+        return SQUARES[square];
+    }
+
     public int getRow() {
         return row;
     }
@@ -0,0 +1,231 @@
+package chess;
+
+/**
+ * Static evaluation for {@link Search}: material plus piece-square bonuses, in
+ * centipawns from the point of view of the team to move.
+ * <p>
+ * Every piece has a middlegame and an endgame value for each square, and the two
+ * totals are blended by game phase: with all the minor and major pieces on the board
+ * the score is the middlegame one, and it slides towards the endgame one as they come
+ * off. {@link ChessBoard} keeps both totals and the phase up to date as pieces are
+ * placed and removed, so evaluating a position is a few arithmetic operations. When
+ * assertions are enabled every evaluation is checked against a full rescan.
+ * <p>
+ * The piece-square tables are written the way a board is printed, rank 8 at the top,
+ * from white's point of view; black uses them mirrored.
+ */
+final class Evaluation {
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN.
+    // Rough values used to order captures; the evaluation has its own per-phase values
+    static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    private static final int[] MIDDLEGAME_VALUES = {0, 1025, 365, 337, 477, 82};
+    private static final int[] ENDGAME_VALUES = {0, 936, 297, 281, 512, 94};
+    // Phase weight of each piece; the starting position adds up to MAX_PHASE
+    static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+    static final int MAX_PHASE = 24;
+
+    // MIDDLEGAME[pieceIndex][square] and ENDGAME[pieceIndex][square]: value plus table
+    // bonus of a piece on a square, positive for white pieces and negative for black ones
+    static final int[][] MIDDLEGAME = new int[12][64];
+    static final int[][] ENDGAME = new int[12][64];
+
+    private static final int[][] MIDDLEGAME_TABLES = {
+            // King: stay sheltered behind the pawns
+            {
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20
+            },
+            // Queen
+            {
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20
+            },
+            // Bishop
+            {
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20
+            },
+            // Knight
+            {
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            // Rook
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0
+            },
+            // Pawn: advance, and keep the centre pawns off their home squares
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            }
+    };
+
+    private static final int[][] ENDGAME_TABLES = {
+            // King: come to the centre once the queens are gone
+            {
+                    -50, -40, -30, -20, -20, -30, -40, -50,
+                    -30, -20, -10, 0, 0, -10, -20, -30,
+                    -30, -10, 20, 30, 30, 20, -10, -30,
+                    -30, -10, 30, 40, 40, 30, -10, -30,
+                    -30, -10, 30, 40, 40, 30, -10, -30,
+                    -30, -10, 20, 30, 30, 20, -10, -30,
+                    -30, -30, 0, 0, 0, 0, -30, -30,
+                    -50, -30, -30, -30, -30, -30, -30, -50
+            },
+            // Queen
+            {
+                    -10, -5, -5, -5, -5, -5, -5, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    -5, 5, 10, 10, 10, 10, 5, -5,
+                    -5, 5, 10, 15, 15, 10, 5, -5,
+                    -5, 5, 10, 15, 15, 10, 5, -5,
+                    -5, 5, 10, 10, 10, 10, 5, -5,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    -10, -5, -5, -5, -5, -5, -5, -10
+            },
+            // Bishop
+            {
+                    -15, -10, -10, -10, -10, -10, -10, -15,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -15, -10, -10, -10, -10, -10, -10, -15
+            },
+            // Knight
+            {
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            // Rook
+            {
+                    10, 10, 10, 10, 10, 10, 10, 10,
+                    15, 15, 15, 15, 15, 15, 15, 15,
+                    5, 5, 5, 5, 5, 5, 5, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            },
+            // Pawn: passers become the whole game
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    120, 120, 120, 120, 120, 120, 120, 120,
+                    70, 70, 70, 70, 70, 70, 70, 70,
+                    40, 40, 40, 40, 40, 40, 40, 40,
+                    20, 20, 20, 20, 20, 20, 20, 20,
+                    10, 10, 10, 10, 10, 10, 10, 10,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            }
+    };
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int sign = color == ChessGame.TeamColor.WHITE ? 1 : -1;
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int index = ChessBoard.pieceIndex(color, type);
+                for (int square = 0; square < 64; square++) {
+                    int tableSquare = tableIndex(color, square);
+                    MIDDLEGAME[index][square] = sign * (MIDDLEGAME_VALUES[type.ordinal()]
+                            + MIDDLEGAME_TABLES[type.ordinal()][tableSquare]);
+                    ENDGAME[index][square] = sign * (ENDGAME_VALUES[type.ordinal()]
+                            + ENDGAME_TABLES[type.ordinal()][tableSquare]);
+                }
+            }
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return the position's score for the given team, positive when it is better off
+     */
+    static int evaluate(ChessBoard board, ChessGame.TeamColor team) {
+        int white = taper(board.getMiddlegameScore(), board.getEndgameScore(), board.getPhase());
+        assert white == rescan(board) : "Incremental evaluation " + white + " differs from rescan " + rescan(board);
+        return team == ChessGame.TeamColor.WHITE ? white : -white;
+    }
+
+    /**
+     * Evaluates from scratch, for white, by visiting every piece; used to verify the
+     * board's incremental totals.
+     */
+    static int rescan(ChessBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int index = ChessBoard.pieceIndex(color, type);
+                for (long pieces = board.getPieces(color, type); pieces != 0; pieces &= pieces - 1) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    middlegame += MIDDLEGAME[index][square];
+                    endgame += ENDGAME[index][square];
+                    phase += PHASE_WEIGHTS[type.ordinal()];
+                }
+            }
+        }
+        return taper(middlegame, endgame, phase);
+    }
+
+    private static int taper(int middlegame, int endgame, int phase) {
+        // Promotions can push the phase past the starting position's
+        int weight = Math.min(phase, MAX_PHASE);
+        return (middlegame * weight + endgame * (MAX_PHASE - weight)) / MAX_PHASE;
+    }
+
+    // Tables list rank 8 first, so white flips the rank and black reads them as they are
+    private static int tableIndex(ChessGame.TeamColor color, int square) {
+        return color == ChessGame.TeamColor.WHITE ? square ^ 56 : square;
+    }
+}
@@ -0,0 +1,254 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation: piece placement from row 8
+ * down, side to move, castling rights, en passant square, halfmove clock and full move
+ * number, e.g. {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}.
+ * <p>
+ * Parsing walks the text once with no intermediate strings and can fill an existing
+ * game in place, so loading many positions in a row needn't allocate a board for each.
+ * The two clocks may be left off, as many tools do; they then default to 0 and 1.
+ */
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Indexed like ChessBoard's bitboards: team ordinal * 6 + piece type ordinal
+    private static final String PIECE_LETTERS = "KQBNRPkqbnrp";
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+    private static final long[] NO_KEYS = new long[0];
+
+    private Fen() {
+    }
+
+    /**
+     * @throws FenFormatException if the text is not a valid FEN record
+     */
+    public static ChessGame parse(CharSequence fen) {
+        ChessGame game = new ChessGame();
+        parse(fen, game);
+        return game;
+    }
+
+    /**
+     * Sets up an existing game, reusing its board, from a FEN record. The game's history
+     * starts over at the parsed position. If parsing fails the game is left in an
+     * unspecified state.
+     *
+     * @throws FenFormatException if the text is not a valid FEN record
+     */
+    public static void parse(CharSequence fen, ChessGame target) {
+        ChessBoard board = target.getBoard();
+        board.clear();
+        int length = fen.length();
+
+        int i = 0;
+        int row = 8;
+        int column = 1;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (column != 9) {
+                    throw new FenFormatException("Row " + row + " has " + (column - 1) + " squares instead of 8", i);
+                }
+                if (row == 1) {
+                    throw new FenFormatException("More than 8 rows", i);
+                }
+                row--;
+                column = 1;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+                if (column > 9) {
+                    throw new FenFormatException("Row " + row + " has more than 8 squares", i);
+                }
+            } else {
+                int index = PIECE_LETTERS.indexOf(c);
+                if (index < 0) {
+                    throw new FenFormatException("Unexpected character '" + c + "' in piece placement", i);
+                }
+                if (column > 8) {
+                    throw new FenFormatException("Row " + row + " has more than 8 squares", i);
+                }
+                board.addPiece(ChessPosition.of(row, column),
+                        ChessPiece.of(ChessGame.TeamColor.values()[index / 6], PIECE_TYPES[index % 6]));
+                column++;
+            }
+        }
+        if (row != 1 || column != 9) {
+            throw new FenFormatException("Piece placement needs 8 rows of 8 squares", i);
+        }
+
+        i = skipSeparator(fen, i);
+        ChessGame.TeamColor turn = switch (charAt(fen, i)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw new FenFormatException("Side to move must be 'w' or 'b'", i);
+        };
+        i++;
+
+        i = skipSeparator(fen, i);
+        int castlingRights = 0;
+        if (charAt(fen, i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                int right = switch (fen.charAt(i)) {
+                    case 'K' -> ChessBoard.WHITE_KINGSIDE;
+                    case 'Q' -> ChessBoard.WHITE_QUEENSIDE;
+                    case 'k' -> ChessBoard.BLACK_KINGSIDE;
+                    case 'q' -> ChessBoard.BLACK_QUEENSIDE;
+                    default -> throw new FenFormatException("Castling rights must be '-' or from 'KQkq'", i);
+                };
+                if ((castlingRights & right) != 0) {
+                    throw new FenFormatException("Castling right '" + fen.charAt(i) + "' repeated", i);
+                }
+                castlingRights |= right;
+            }
+        }
+
+        i = skipSeparator(fen, i);
+        int enPassantSquare = -1;
+        if (charAt(fen, i) == '-') {
+            i++;
+        } else {
+            char file = charAt(fen, i);
+            if (file < 'a' || file > 'h') {
+                throw new FenFormatException("En passant square must be '-' or a square", i);
+            }
+            // The skipped square is on row 6 after a white push and row 3 after a black one
+            char expectedRow = turn == ChessGame.TeamColor.WHITE ? '6' : '3';
+            if (charAt(fen, i + 1) != expectedRow) {
+                throw new FenFormatException("En passant square must be on row " + expectedRow, i + 1);
+            }
+            enPassantSquare = ChessBoard.squareOf(expectedRow - '0', file - 'a' + 1);
+            i += 2;
+        }
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (i < length && !isBlank(fen, i)) {
+            i = skipSeparator(fen, i);
+            int start = i;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                halfmoveClock = appendDigit(halfmoveClock, fen, i);
+            }
+            if (i == start) {
+                throw new FenFormatException("Missing halfmove clock", i);
+            }
+            i = skipSeparator(fen, i);
+            start = i;
+            fullmoveNumber = 0;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                fullmoveNumber = appendDigit(fullmoveNumber, fen, i);
+            }
+            if (i == start) {
+                throw new FenFormatException("Missing full move number", i);
+            }
+            if (fullmoveNumber == 0) {
+                throw new FenFormatException("Full move number must be at least 1", start);
+            }
+        }
+        for (; i < length; i++) {
+            if (fen.charAt(i) != ' ') {
+                throw new FenFormatException("Unexpected character '" + fen.charAt(i) + "' after the last field", i);
+            }
+        }
+
+        board.setCastlingRights(castlingRights);
+        board.setEnPassantPosition(enPassantSquare < 0 ? null : ChessBoard.positionOf(enPassantSquare));
+        target.resetPosition(board, turn, NO_KEYS, halfmoveClock, fullmoveNumber);
+    }
+
+    public static String toFen(ChessGame game) {
+        StringBuilder out = new StringBuilder(90);
+        append(game, out);
+        return out.toString();
+    }
+
+    /**
+     * Writes a game's position as FEN onto the end of a builder, for callers writing
+     * many positions into one buffer.
+     */
+    public static void append(ChessGame game, StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int column = 1; column <= 8; column++) {
+                ChessPiece piece = board.getPiece(ChessBoard.squareOf(row, column));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_LETTERS.charAt(ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int castlingRights = board.getCastlingRights();
+        if (castlingRights == 0) {
+            out.append('-');
+        } else {
+            if ((castlingRights & ChessBoard.WHITE_KINGSIDE) != 0) out.append('K');
+            if ((castlingRights & ChessBoard.WHITE_QUEENSIDE) != 0) out.append('Q');
+            if ((castlingRights & ChessBoard.BLACK_KINGSIDE) != 0) out.append('k');
+            if ((castlingRights & ChessBoard.BLACK_QUEENSIDE) != 0) out.append('q');
+        }
+
+        out.append(' ');
+        ChessPosition enPassant = board.getEnPassantPosition();
+        if (enPassant == null) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + enPassant.getColumn() - 1)).append(enPassant.getRow());
+        }
+        out.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+    }
+
+    // Fields are separated by one or more spaces
+    private static int skipSeparator(CharSequence fen, int i) {
+        if (charAt(fen, i) != ' ') {
+            throw new FenFormatException("Expected a space", i);
+        }
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    // The character at an index, failing if the text ends first
+    private static char charAt(CharSequence fen, int i) {
+        if (i >= fen.length()) {
+            throw new FenFormatException("Unexpected end of FEN", fen.length());
+        }
+        return fen.charAt(i);
+    }
+
+    private static boolean isBlank(CharSequence fen, int from) {
+        for (int i = from; i < fen.length(); i++) {
+            if (fen.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int appendDigit(int value, CharSequence fen, int i) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9') {
+            throw new FenFormatException("Expected a digit", i);
+        }
+        if (value > (Integer.MAX_VALUE - (c - '0')) / 10) {
+            throw new FenFormatException("Number too large", i);
+        }
+        return value * 10 + (c - '0');
+    }
+}
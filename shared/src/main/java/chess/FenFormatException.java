@@ -0,0 +1,22 @@
+package chess;
+
+/**
+ * Indicates a FEN record could not be parsed, and where in the text it went wrong
+ */
+public class FenFormatException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+
+    public FenFormatException(String message, int index) {
+        super(message + " at index " + index);
+        this.index = index;
+    }
+
+    /**
+     * @return the index of the offending character, or the input's length if it ended early
+     */
+    public int getIndex() {
+        return index;
+    }
+}
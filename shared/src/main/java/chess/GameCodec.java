@@ -0,0 +1,198 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a {@link ChessGame}, for storage where reflective JSON of
+ * the whole object graph is too large and too slow to parse.
+ * <p>
+ * Layout, all numbers big-endian:
+ * <ul>
+ *     <li>a format byte, {@code 0xC1}, which can never start a UTF-8 JSON text</li>
+ *     <li>the occupancy bitboard, 8 bytes</li>
+ *     <li>one 4-bit piece index per occupied square, from a1 upwards, two to a byte</li>
+ *     <li>a byte with the side to move in bit 0 and the castling rights in bits 1-4</li>
+ *     <li>the en passant square, or {@code 0xFF} if there is none</li>
+ *     <li>the halfmove clock and then the full move number, as varints</li>
+ *     <li>a varint count and then the position keys since the last capture or pawn
+ *     move, 8 bytes each, so repetitions are still detected after loading</li>
+ *     <li>a varint count and then moves to play on from the position, 2 bytes each</li>
+ * </ul>
+ * The starting position encodes to 31 bytes.
+ */
+public final class GameCodec {
+    private static final byte FORMAT = (byte) 0xC1;
+    private static final int NO_EN_PASSANT = 0xFF;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        return encode(game, List.of());
+    }
+
+    /**
+     * Encodes a position followed by moves to replay from it, such as a game record.
+     *
+     * @param moves legal moves to play in order from the game's current position
+     */
+    public static byte[] encode(ChessGame game, List<ChessMove> moves) {
+        ChessBoard board = game.getBoard();
+        long occupied = board.getOccupied();
+        long[] history = game.recentPositionKeys();
+        int earlierKeys = history.length - 1;
+        int halfmoveClock = game.getHalfmoveClock();
+        int fullmoveNumber = game.getFullmoveNumber();
+        int size = 1 + Long.BYTES + (Long.bitCount(occupied) + 1) / 2 + 2
+                + varintSize(halfmoveClock) + varintSize(fullmoveNumber) + varintSize(earlierKeys) + earlierKeys * Long.BYTES
+                + varintSize(moves.size()) + moves.size() * Short.BYTES;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(FORMAT);
+        buffer.putLong(occupied);
+        int pending = -1;
+        for (long squares = occupied; squares != 0; squares &= squares - 1) {
+            ChessPiece piece = board.getPiece(Long.numberOfTrailingZeros(squares));
+            int index = ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+            if (pending < 0) {
+                pending = index;
+            } else {
+                buffer.put((byte) (pending << 4 | index));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            buffer.put((byte) (pending << 4));
+        }
+
+        ChessPosition enPassant = board.getEnPassantPosition();
+        buffer.put((byte) (game.getTeamTurn().ordinal() | board.getCastlingRights() << 1));
+        buffer.put((byte) (enPassant == null ? NO_EN_PASSANT : ChessBoard.squareOf(enPassant)));
+        putVarint(buffer, halfmoveClock);
+        putVarint(buffer, fullmoveNumber);
+        putVarint(buffer, earlierKeys);
+        for (int i = 0; i < earlierKeys; i++) {
+            buffer.putLong(history[i]);
+        }
+        putVarint(buffer, moves.size());
+        for (ChessMove move : moves) {
+            // From, to and promotion fit in the low 15 bits of a packed move
+            buffer.putShort((short) (Move.of(move) & 0x7FFF));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @return true if the data starts with this codec's format byte, as opposed to e.g. JSON
+     */
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length > 0 && data[0] == FORMAT;
+    }
+
+    /**
+     * Rebuilds a game from {@link #encode}, replaying any encoded moves.
+     *
+     * @throws IllegalArgumentException if the data is not a valid encoding
+     */
+    public static ChessGame decode(byte[] data) {
+        if (!isEncoded(data)) {
+            throw new IllegalArgumentException("Not an encoded chess game");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+        try {
+            ChessBoard board = new ChessBoard();
+            long occupied = buffer.getLong();
+            int packed = 0;
+            int count = 0;
+            for (long squares = occupied; squares != 0; squares &= squares - 1) {
+                int index;
+                if ((count++ & 1) == 0) {
+                    packed = buffer.get() & 0xFF;
+                    index = packed >>> 4;
+                } else {
+                    index = packed & 0xF;
+                }
+                if (index >= 12) {
+                    throw new IllegalArgumentException("Invalid piece code " + index);
+                }
+                ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.values()[index / 6], PIECE_TYPES[index % 6]);
+                board.addPiece(ChessBoard.positionOf(Long.numberOfTrailingZeros(squares)), piece);
+            }
+
+            int state = buffer.get() & 0xFF;
+            int enPassant = buffer.get() & 0xFF;
+            board.setCastlingRights(state >>> 1);
+            if (enPassant != NO_EN_PASSANT) {
+                if (enPassant >= 64) {
+                    throw new IllegalArgumentException("Invalid en passant square " + enPassant);
+                }
+                board.setEnPassantPosition(ChessBoard.positionOf(enPassant));
+            }
+            int halfmoveClock = getVarint(buffer);
+            int fullmoveNumber = getVarint(buffer);
+            if (fullmoveNumber < 1) {
+                throw new IllegalArgumentException("Invalid full move number " + fullmoveNumber);
+            }
+            long[] earlierKeys = new long[getCount(buffer, Long.BYTES)];
+            for (int i = 0; i < earlierKeys.length; i++) {
+                earlierKeys[i] = buffer.getLong();
+            }
+
+            ChessGame game = new ChessGame();
+            ChessGame.TeamColor turn = (state & 1) == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            game.resetPosition(board, turn, earlierKeys, halfmoveClock, fullmoveNumber);
+
+            int moves = getCount(buffer, Short.BYTES);
+            for (int i = 0; i < moves; i++) {
+                ChessMove move = Move.toChessMove(buffer.getShort() & 0x7FFF);
+                try {
+                    game.makeMove(move);
+                } catch (InvalidMoveException e) {
+                    throw new IllegalArgumentException("Encoded move " + (i + 1) + " is not legal: " + move, e);
+                }
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException(buffer.remaining() + " unexpected trailing bytes");
+            }
+            return game;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Encoded chess game is truncated", e);
+        }
+    }
+
+    // Reads a count of fixed-size items, refusing counts the remaining data can't hold
+    private static int getCount(ByteBuffer buffer, int itemSize) {
+        int count = getVarint(buffer);
+        if (count > buffer.remaining() / itemSize) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int varintSize(int value) {
+        return value == 0 ? 1 : (31 - Integer.numberOfLeadingZeros(value)) / 7 + 1;
+    }
+}
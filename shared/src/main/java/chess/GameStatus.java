@@ -0,0 +1,32 @@
+package chess;
+
+/**
+ * Everything about a position that decides how the game goes on, from the point of
+ * view of the team to move. Computed in one pass by {@link ChessGame#getStatus()}.
+ *
+ * @param teamToMove           the team whose turn it is
+ * @param inCheck              whether that team's king is attacked
+ * @param legalMoveCount       how many legal moves that team has
+ * @param insufficientMaterial whether neither side has enough material left to checkmate
+ * @param drawByRepetition     whether the position has occurred three times
+ * @param drawByFiftyMoveRule  whether fifty moves each have passed without a capture or pawn move
+ */
+public record GameStatus(ChessGame.TeamColor teamToMove, boolean inCheck, int legalMoveCount,
+                         boolean insufficientMaterial, boolean drawByRepetition, boolean drawByFiftyMoveRule) {
+
+    public boolean isCheckmate() {
+        return inCheck && legalMoveCount == 0;
+    }
+
+    public boolean isStalemate() {
+        return !inCheck && legalMoveCount == 0;
+    }
+
+    /**
+     * @return true if the game has ended by itself: checkmate, stalemate or insufficient
+     * material. Repetition and fifty-move draws are left for the players to claim.
+     */
+    public boolean isGameOver() {
+        return legalMoveCount == 0 || insufficientMaterial;
+    }
+}
@@ -0,0 +1,159 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded search in the "Lazy SMP" style: helper threads run their own
+ * {@link Search} of the same position at the same time as the main one, and the only
+ * thing they share is the {@link TranspositionTable}. Helpers start one ply deeper on
+ * every other thread, so they fill the table with results the main search is about to
+ * need, and every thread gets further through its iterations than it would alone.
+ * <p>
+ * One instance runs one search at a time; {@link #stop()} may be called from any thread.
+ * The game must not change while it is being searched.
+ * <p>
+ * Run from the command line with {@code java chess.LazySmpSearch [position] [depth] [threads]}
+ * to compare against a single thread, using the positions in {@link Perft#POSITIONS}.
+ */
+public class LazySmpSearch implements AutoCloseable {
+    // Long enough to never be the reason a fixed-depth search stops
+    private static final long NO_TIME_LIMIT = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Result of one search across all threads.
+     *
+     * @param result  the deepest completed result of any thread, preferring the main thread's
+     * @param threads threads used, including the main one
+     * @param nodes   positions visited by all threads together
+     * @param nanos   wall-clock time taken
+     */
+    public record Result(SearchResult result, int threads, long nodes, long nanos) {
+
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    private final TranspositionTable table;
+    private final ExecutorService helpers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "lazy-smp-helper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Kept between searches so each thread's move ordering tables carry over; index 0 is the main search
+    private volatile Search[] searches = new Search[0];
+
+    public LazySmpSearch(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Searches the game's current position with the given number of threads.
+     *
+     * @param threads         total threads to use; 1 is an ordinary single-threaded search
+     * @param maxDepth        the deepest iteration to run, in plies
+     * @param timeLimitMillis wall-clock budget for the whole search
+     */
+    public synchronized Result search(ChessGame game, int threads, int maxDepth, long timeLimitMillis) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is needed");
+        }
+        long start = System.nanoTime();
+        if (searches.length < threads) {
+            Search[] grown = Arrays.copyOf(searches, threads);
+            for (int i = searches.length; i < threads; i++) {
+                grown[i] = new Search(table);
+            }
+            searches = grown;
+        }
+        Search[] active = searches;
+        table.newSearch();
+        for (int i = 0; i < threads; i++) {
+            active[i].clearStop();
+        }
+
+        List<Future<SearchResult>> helperResults = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            Search helper = active[i];
+            int firstDepth = 1 + i % 2;
+            helperResults.add(helpers.submit(() -> helper.search(game, firstDepth, maxDepth, timeLimitMillis, true)));
+        }
+        SearchResult best = active[0].search(game, 1, maxDepth, timeLimitMillis, false);
+        for (int i = 1; i < threads; i++) {
+            active[i].stop();
+        }
+
+        long nodes = best.nodes();
+        for (Future<SearchResult> future : helperResults) {
+            SearchResult helperResult = waitFor(future);
+            if (helperResult != null) {
+                nodes += helperResult.nodes();
+                if (helperResult.depth() > best.depth() && helperResult.bestMove() != null) {
+                    best = helperResult;
+                }
+            }
+        }
+        return new Result(best, threads, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to return as soon as the main thread has a result.
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        helpers.shutdown();
+    }
+
+    private static SearchResult waitFor(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+
+    /**
+     * Measures the effective speedup of Lazy SMP: how many times faster the given
+     * number of threads reaches a fixed depth than one thread does, each starting from
+     * an empty table.
+     */
+    public static double timeToDepthSpeedup(ChessGame game, int depth, int threads, int megabytes) {
+        long single = new Search(new TranspositionTable(megabytes)).search(game, depth, NO_TIME_LIMIT).nanos();
+        try (LazySmpSearch smp = new LazySmpSearch(new TranspositionTable(megabytes))) {
+            return (double) single / smp.search(game, threads, depth, NO_TIME_LIMIT).nanos();
+        }
+    }
+
+    public static void main(String[] args) {
+        Perft.Position position = Perft.position(args.length > 0 ? args[0] : "start");
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        try (LazySmpSearch smp = new LazySmpSearch(new TranspositionTable(64))) {
+            Result result = smp.search(position.toGame(), threads, depth, NO_TIME_LIMIT);
+            ChessMove bestMove = result.result().bestMove();
+            System.out.printf("%s depth %d on %d threads: %s, score %d, %,d nodes in %.3f s, %,d nodes/s%n",
+                    position.name(), result.result().depth(), threads,
+                    bestMove == null ? "none" : Notation.toUci(bestMove),
+                    result.result().score(), result.nodes(), result.nanos() / 1e9, result.nodesPerSecond());
+        }
+        System.out.printf("time-to-depth speedup over 1 thread: %.2fx%n",
+                timeToDepthSpeedup(position.toGame(), depth, threads, 64));
+    }
+}
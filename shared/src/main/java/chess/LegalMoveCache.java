@@ -0,0 +1,78 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The legal moves of each team in one position, generated once and grouped by start
+ * square so every later {@link ChessGame#validMoves} query is a slice lookup.
+ * <p>
+ * Entries are tagged with the board's Zobrist key, so they go stale on their own when
+ * the board changes; {@link #clear()} drops them eagerly after a move. The arrays are
+ * reused from position to position, so a game never holds more than two positions'
+ * worth of packed moves.
+ */
+final class LegalMoveCache {
+    private final long[] keys = new long[2];
+    private final boolean[] filled = new boolean[2];
+    // moves[team] holds the packed moves sorted by start square;
+    // starts[team][square] is the index of the first one from that square
+    private final int[][] moves = {new int[64], new int[64]};
+    private final int[][] starts = new int[2][65];
+    private final int[] cursor = new int[64];
+
+    void clear() {
+        filled[0] = false;
+        filled[1] = false;
+    }
+
+    /**
+     * @return the number of legal moves the team has on the board
+     */
+    int count(ChessBoard board, ChessGame.TeamColor team) {
+        int t = fill(board, team);
+        return starts[t][64];
+    }
+
+    /**
+     * Adds the legal moves from one square, boxed as {@link ChessMove}s, to a collection.
+     */
+    void addMoves(ChessBoard board, ChessGame.TeamColor team, int square, Collection<ChessMove> out) {
+        int t = fill(board, team);
+        for (int i = starts[t][square]; i < starts[t][square + 1]; i++) {
+            out.add(Move.toChessMove(moves[t][i]));
+        }
+    }
+
+    private int fill(ChessBoard board, ChessGame.TeamColor team) {
+        int t = team.ordinal();
+        long key = board.getZobristKey();
+        if (filled[t] && keys[t] == key) {
+            return t;
+        }
+        MoveList list = MoveGenerator.forThread().scratch();
+        MoveGenerator.forThread().generateLegal(board, team, -1L, list);
+        if (moves[t].length < list.size()) {
+            moves[t] = new int[list.size()];
+        }
+
+        // Counting sort by start square
+        int[] start = starts[t];
+        Arrays.fill(start, 0);
+        for (int i = 0; i < list.size(); i++) {
+            start[Move.from(list.get(i)) + 1]++;
+        }
+        for (int square = 0; square < 64; square++) {
+            start[square + 1] += start[square];
+        }
+        System.arraycopy(start, 0, cursor, 0, 64);
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            moves[t][cursor[Move.from(move)]++] = move;
+        }
+
+        keys[t] = key;
+        filled[t] = true;
+        return t;
+    }
+}
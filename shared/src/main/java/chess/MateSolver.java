@@ -0,0 +1,288 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds forced mates for the side to move with proof-number search.
+ * <p>
+ * Proof-number search grows the game tree best-first. Every node carries a proof
+ * number, how many more leaves would have to turn out as mates to prove it, and a
+ * disproof number, how many would have to turn out as escapes to refute it. At each
+ * step the solver follows the child that is cheapest to settle down to a single "most
+ * proving" leaf, expands it, and updates the numbers back up to the root. At nodes
+ * where the attacker moves one mating child proves the node; at nodes where the
+ * defender moves every reply has to be mated. Narrow forcing lines, which is what
+ * mates usually are, get searched first.
+ * <p>
+ * The tree lives in fixed arrays allocated once per solver, so memory is bounded by the
+ * node capacity. A search that fills them, or runs out of time, gives up with
+ * {@link Outcome#UNKNOWN}. One solver runs one search at a time.
+ */
+public class MateSolver {
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    public enum Outcome {
+        /** The side to move mates within the requested number of moves */
+        MATE,
+        /** The side to move has no forced mate within the requested number of moves */
+        NO_MATE,
+        /** The node table filled up or time ran out first */
+        UNKNOWN
+    }
+
+    /**
+     * @param outcome whether a mate was found
+     * @param line    the mating line, attacker's moves and the defender's longest resistance
+     *                alternating; empty unless outcome is MATE
+     * @param nodes   tree nodes created
+     * @param nanos   time taken
+     */
+    public record Result(Outcome outcome, List<ChessMove> line, long nodes, long nanos) {
+
+        /**
+         * @return the number of the attacker's moves in the mating line, or 0 if there is none
+         */
+        public int mateIn() {
+            return (line.size() + 1) / 2;
+        }
+    }
+
+    // The node table. Children of a node are stored next to each other, starting at firstChild
+    private final int[] proof;
+    private final int[] disproof;
+    private final int[] moves;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private int nodeCount;
+
+    private ChessBoard board;
+    private MoveGenerator generator;
+    private ChessGame.TeamColor attacker;
+    private int maxPly;
+    // Nodes along the current path from the root, and their position keys, to refute
+    // lines that only repeat
+    private int[] path;
+    private long[] pathKeys;
+
+    /**
+     * @param maxNodes capacity of the node table; each node takes 20 bytes
+     */
+    public MateSolver(int maxNodes) {
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("Mate solver needs room for at least one node");
+        }
+        proof = new int[maxNodes];
+        disproof = new int[maxNodes];
+        moves = new int[maxNodes];
+        firstChild = new int[maxNodes];
+        childCount = new int[maxNodes];
+    }
+
+    /**
+     * Looks for a mate by the side to move in at most the given number of its moves.
+     * The game is not changed.
+     *
+     * @param mateInMoves     the most moves the attacker may take, counting the mating move
+     * @param timeLimitMillis wall-clock budget, after which the search gives up
+     */
+    public Result solve(ChessGame game, int mateInMoves, long timeLimitMillis) {
+        long start = System.nanoTime();
+        long deadline = start + timeLimitMillis * 1_000_000L;
+        board = new ChessBoard(game.getBoard());
+        generator = MoveGenerator.forThread();
+        attacker = game.getTeamTurn();
+        // The attacker moves on even plies; its last move is on ply maxPly - 1
+        maxPly = 2 * Math.max(1, mateInMoves) - 1;
+        path = new int[maxPly + 2];
+        pathKeys = new long[maxPly + 2];
+
+        nodeCount = 1;
+        firstChild[0] = -1;
+        moves[0] = 0;
+        MoveList rootMoves = generator.list(0);
+        generator.generateLegal(board, attacker, -1L, rootMoves);
+        if (rootMoves.size() == 0) {
+            return new Result(Outcome.NO_MATE, List.of(), nodeCount, System.nanoTime() - start);
+        }
+        proof[0] = 1;
+        disproof[0] = rootMoves.size();
+
+        int iterations = 0;
+        while (proof[0] != 0 && disproof[0] != 0) {
+            if ((++iterations & 63) == 0 && System.nanoTime() - deadline >= 0) {
+                return new Result(Outcome.UNKNOWN, List.of(), nodeCount, System.nanoTime() - start);
+            }
+            if (!expandMostProving()) {
+                return new Result(Outcome.UNKNOWN, List.of(), nodeCount, System.nanoTime() - start);
+            }
+        }
+
+        long nanos = System.nanoTime() - start;
+        if (proof[0] != 0) {
+            return new Result(Outcome.NO_MATE, List.of(), nodeCount, nanos);
+        }
+        List<ChessMove> line = new ArrayList<>();
+        collectLine(0, 0, line);
+        return new Result(Outcome.MATE, List.copyOf(line), nodeCount, nanos);
+    }
+
+    /**
+     * Walks from the root to the most proving leaf, expands it, and updates the proof
+     * and disproof numbers on the way back up.
+     *
+     * @return false if the node table has no room for the leaf's children
+     */
+    private boolean expandMostProving() {
+        int ply = 0;
+        int node = 0;
+        path[0] = 0;
+        pathKeys[0] = positionKey(attacker);
+        while (firstChild[node] >= 0) {
+            node = selectChild(node, ply % 2 == 0);
+            board.makeMove(moves[node]);
+            ply++;
+            path[ply] = node;
+            pathKeys[ply] = positionKey(sideToMove(ply));
+        }
+
+        boolean expanded = expand(node, ply);
+        for (int i = ply; i >= 0; i--) {
+            if (firstChild[path[i]] >= 0) {
+                update(path[i], i % 2 == 0);
+            }
+            if (i > 0) {
+                board.unmakeMove();
+            }
+        }
+        return expanded;
+    }
+
+    // The attacker follows the child closest to a proof, the defender the one closest to a refutation
+    private int selectChild(int node, boolean attackerToMove) {
+        int best = firstChild[node];
+        for (int child = best + 1; child < firstChild[node] + childCount[node]; child++) {
+            if (attackerToMove ? proof[child] < proof[best] : disproof[child] < disproof[best]) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private boolean expand(int node, int ply) {
+        ChessGame.TeamColor side = sideToMove(ply);
+        MoveList list = generator.list(ply);
+        generator.generateLegal(board, side, -1L, list);
+        if (nodeCount + list.size() > proof.length) {
+            return false;
+        }
+        firstChild[node] = nodeCount;
+        childCount[node] = list.size();
+        nodeCount += list.size();
+
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(side);
+        for (int i = 0; i < list.size(); i++) {
+            int child = firstChild[node] + i;
+            int move = list.get(i);
+            moves[child] = move;
+            firstChild[child] = -1;
+            board.makeMove(move);
+            initialise(child, ply + 1, opponent);
+            board.unmakeMove();
+        }
+        return true;
+    }
+
+    // Sets a new leaf's numbers: settled outright when it is over, else from its mobility
+    private void initialise(int node, int ply, ChessGame.TeamColor side) {
+        MoveList replies = generator.list(ply);
+        generator.generateLegal(board, side, -1L, replies);
+        boolean attackerToMove = side == attacker;
+        if (replies.size() == 0) {
+            boolean mated = !attackerToMove && isInCheck(side);
+            setSettled(node, mated);
+        } else if (!attackerToMove && ply >= maxPly) {
+            // The attacker has used up its moves without mating
+            setSettled(node, false);
+        } else if (repeatsPath(ply, positionKey(side))) {
+            setSettled(node, false);
+        } else if (attackerToMove) {
+            proof[node] = 1;
+            disproof[node] = replies.size();
+        } else {
+            proof[node] = replies.size();
+            disproof[node] = 1;
+        }
+    }
+
+    private void setSettled(int node, boolean proven) {
+        proof[node] = proven ? 0 : INFINITY;
+        disproof[node] = proven ? INFINITY : 0;
+    }
+
+    private void update(int node, boolean attackerToMove) {
+        int min = INFINITY;
+        long sum = 0;
+        for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+            min = Math.min(min, attackerToMove ? proof[child] : disproof[child]);
+            sum += attackerToMove ? disproof[child] : proof[child];
+        }
+        int total = (int) Math.min(sum, INFINITY);
+        proof[node] = attackerToMove ? min : total;
+        disproof[node] = attackerToMove ? total : min;
+    }
+
+    /**
+     * Follows the proof tree for the mating line: the attacker takes its quickest proven
+     * mate, the defender the reply that holds out longest.
+     *
+     * @return the number of plies to mate below the node
+     */
+    private int collectLine(int node, int ply, List<ChessMove> line) {
+        if (firstChild[node] < 0) {
+            return 0;
+        }
+        boolean attackerToMove = ply % 2 == 0;
+        int bestChild = -1;
+        int bestLength = 0;
+        List<ChessMove> bestLine = null;
+        for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+            if (proof[child] != 0) {
+                continue;
+            }
+            List<ChessMove> childLine = new ArrayList<>();
+            int length = 1 + collectLine(child, ply + 1, childLine);
+            if (bestChild < 0 || (attackerToMove ? length < bestLength : length > bestLength)) {
+                bestChild = child;
+                bestLength = length;
+                bestLine = childLine;
+            }
+        }
+        line.add(Move.toChessMove(moves[bestChild]));
+        line.addAll(bestLine);
+        return bestLength;
+    }
+
+    private ChessGame.TeamColor sideToMove(int ply) {
+        return ply % 2 == 0 ? attacker : MoveGenerator.opponent(attacker);
+    }
+
+    private boolean isInCheck(ChessGame.TeamColor team) {
+        long kings = board.getPieces(team, ChessPiece.PieceType.KING);
+        return kings != 0 && board.isSquareAttacked(Long.numberOfTrailingZeros(kings), MoveGenerator.opponent(team));
+    }
+
+    private boolean repeatsPath(int ply, long key) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (pathKeys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long positionKey(ChessGame.TeamColor side) {
+        long key = board.getZobristKey();
+        return side == ChessGame.TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+}
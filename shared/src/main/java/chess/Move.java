@@ -0,0 +1,62 @@
+package chess;
+
+/**
+ * Packed int encoding of a move for internal engine use:
+ * bits 0-5 from square, 6-11 to square, 12-14 promotion piece (PieceType ordinal + 1,
+ * or 0 for none), 15-18 flags. Squares are ChessBoard indexes (0 = a1 ... 63 = h8).
+ * <p>
+ * Moves only become {@link ChessMove} objects at the public API boundary.
+ */
+final class Move {
+    static final int CAPTURE = 1 << 15;
+    static final int DOUBLE_PUSH = 1 << 16;
+    static final int EN_PASSANT = 1 << 17;
+    static final int CASTLE = 1 << 18;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    static int of(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        return from | (to << 6) | ((promotion.ordinal() + 1) << 12) | flags;
+    }
+
+    static int of(ChessMove move) {
+        int from = ChessBoard.squareOf(move.getStartPosition());
+        int to = ChessBoard.squareOf(move.getEndPosition());
+        return move.getPromotionPiece() == null ? of(from, to, 0) : of(from, to, move.getPromotionPiece(), 0);
+    }
+
+    static int from(int move) {
+        return move & 63;
+    }
+
+    static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 7;
+        return code == 0 ? null : PIECE_TYPES[code - 1];
+    }
+
+    static boolean isCapture(int move) {
+        return (move & (CAPTURE | EN_PASSANT)) != 0;
+    }
+
+    static boolean isPromotion(int move) {
+        return (move & (7 << 12)) != 0;
+    }
+
+    /**
+     * @return the canonical {@link ChessMove} for a packed move
+     */
+    static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+}
@@ -0,0 +1,243 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Generates legal packed moves (see {@link Move}) straight from the board's bitboards
+ * into reusable {@link MoveList}s. Each thread has its own generator, which owns one list per
+ * search ply, so recursive callers like perft and search never allocate.
+ */
+final class MoveGenerator {
+    private static final ThreadLocal<MoveGenerator> GENERATORS = ThreadLocal.withInitial(MoveGenerator::new);
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveList[] lists = new MoveList[0];
+    private final MoveList scratch = new MoveList();
+
+    private MoveGenerator() {
+    }
+
+    static MoveGenerator forThread() {
+        return GENERATORS.get();
+    }
+
+    /**
+     * @return this generator's list for a recursion depth, reused across calls
+     */
+    MoveList list(int ply) {
+        if (ply >= lists.length) {
+            MoveList[] grown = Arrays.copyOf(lists, Math.max(ply + 1, lists.length * 2));
+            for (int i = lists.length; i < grown.length; i++) {
+                grown[i] = new MoveList();
+            }
+            lists = grown;
+        }
+        return lists[ply];
+    }
+
+    /**
+     * @return a list for one-shot callers that copy the moves out before generating again
+     */
+    MoveList scratch() {
+        return scratch;
+    }
+
+    /**
+     * Fills a list with the legal moves of a team's pieces standing on the squares in
+     * fromMask, so no move leaves the team's own king attacked.
+     * <p>
+     * Legality is worked out once for the whole position rather than by trying each
+     * move: the pieces giving check restrict every non-king move to capturing the
+     * checker or blocking its ray, a pinned piece may only move along its pin line, and
+     * the king may only step to squares that are not attacked once it has left its own.
+     * En passant, which removes two pieces from one rank, is checked on its own.
+     */
+    void generateLegal(ChessBoard board, ChessGame.TeamColor team, long fromMask, MoveList list) {
+        list.clear();
+        ChessGame.TeamColor opponent = opponent(team);
+        long own = board.getTeamPieces(team);
+        long enemies = board.getTeamPieces(opponent);
+        long occupied = board.getOccupied();
+        long movable = own & fromMask;
+        long kings = board.getPieces(team, ChessPiece.PieceType.KING);
+
+        // Squares a non-king move may end on, and pieces whose moves are limited to a pin line
+        long evasionMask = -1L;
+        long pinned = 0;
+        int king = -1;
+        if (kings != 0) {
+            king = Long.numberOfTrailingZeros(kings);
+            long checkers = board.attackersOf(king, opponent, occupied);
+            if (Long.bitCount(checkers) > 1) {
+                // Double check: only the king can move
+                evasionMask = 0;
+            } else if (checkers != 0) {
+                int checker = Long.numberOfTrailingZeros(checkers);
+                evasionMask = checkers | Attacks.BETWEEN[king][checker];
+            }
+            pinned = pinnedPieces(board, king, opponent, own, enemies, occupied);
+        }
+
+        if (evasionMask != 0) {
+            addPawnMoves(board, team, movable & board.getPieces(team, ChessPiece.PieceType.PAWN),
+                    enemies, occupied, king, evasionMask, pinned, list);
+            addPieceMoves(ChessPiece.PieceType.KNIGHT, movable & board.getPieces(team, ChessPiece.PieceType.KNIGHT),
+                    own, enemies, occupied, king, evasionMask, pinned, list);
+            addPieceMoves(ChessPiece.PieceType.BISHOP, movable & board.getPieces(team, ChessPiece.PieceType.BISHOP),
+                    own, enemies, occupied, king, evasionMask, pinned, list);
+            addPieceMoves(ChessPiece.PieceType.ROOK, movable & board.getPieces(team, ChessPiece.PieceType.ROOK),
+                    own, enemies, occupied, king, evasionMask, pinned, list);
+            addPieceMoves(ChessPiece.PieceType.QUEEN, movable & board.getPieces(team, ChessPiece.PieceType.QUEEN),
+                    own, enemies, occupied, king, evasionMask, pinned, list);
+        }
+
+        for (long pieces = movable & kings; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            // Sliders must see through the king, or it could step back along their ray
+            long withoutKing = occupied & ~(1L << from);
+            long targets = Attacks.KING[from] & ~own;
+            for (long remaining = targets; remaining != 0; remaining &= remaining - 1) {
+                int to = Long.numberOfTrailingZeros(remaining);
+                if (board.attackersOf(to, opponent, withoutKing) == 0) {
+                    list.add(Move.of(from, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : 0));
+                }
+            }
+            if (from == king && evasionMask == -1L) {
+                addCastlingMoves(board, team, from, occupied, list);
+            }
+        }
+    }
+
+    /**
+     * @return the pieces of the king's team that are the only piece between the king and
+     * an enemy slider aimed at it along that slider's line
+     */
+    private static long pinnedPieces(ChessBoard board, int king, ChessGame.TeamColor opponent, long own,
+                                     long enemies, long occupied) {
+        long queens = board.getPieces(opponent, ChessPiece.PieceType.QUEEN);
+        // Looking from the king through friendly pieces finds every slider that could pin
+        long pinners = (Attacks.rookAttacks(king, enemies) & (board.getPieces(opponent, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishopAttacks(king, enemies) & (board.getPieces(opponent, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0;
+        for (; pinners != 0; pinners &= pinners - 1) {
+            long between = Attacks.BETWEEN[king][Long.numberOfTrailingZeros(pinners)] & occupied;
+            if (Long.bitCount(between) == 1 && (between & own) != 0) {
+                pinned |= between;
+            }
+        }
+        return pinned;
+    }
+
+    // Squares a piece on from may move to without exposing its king
+    private static long legalTargets(int from, int king, long evasionMask, long pinned) {
+        return (pinned & (1L << from)) != 0 ? evasionMask & Attacks.LINE[king][from] : evasionMask;
+    }
+
+    private static void addPieceMoves(ChessPiece.PieceType type, long pieces, long own, long enemies, long occupied,
+                                      int king, long evasionMask, long pinned, MoveList list) {
+        for (; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            long attacks = switch (type) {
+                case KNIGHT -> Attacks.KNIGHT[from];
+                case BISHOP -> Attacks.bishopAttacks(from, occupied);
+                case ROOK -> Attacks.rookAttacks(from, occupied);
+                default -> Attacks.queenAttacks(from, occupied);
+            };
+            long targets = attacks & ~own & legalTargets(from, king, evasionMask, pinned);
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                list.add(Move.of(from, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : 0));
+            }
+        }
+    }
+
+    private static void addPawnMoves(ChessBoard board, ChessGame.TeamColor team, long pawns, long enemies,
+                                     long occupied, int king, long evasionMask, long pinned, MoveList list) {
+        boolean white = team == ChessGame.TeamColor.WHITE;
+        int direction = white ? 8 : -8;
+        int startRow = white ? 1 : 6;
+        int promotionRow = white ? 7 : 0;
+        for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+            int from = Long.numberOfTrailingZeros(remaining);
+            long allowed = legalTargets(from, king, evasionMask, pinned);
+            int oneStep = from + direction;
+            if (oneStep >= 0 && oneStep < 64 && (occupied & (1L << oneStep)) == 0) {
+                if ((allowed & (1L << oneStep)) != 0) {
+                    addPawnMove(from, oneStep, promotionRow, 0, list);
+                }
+                int twoSteps = oneStep + direction;
+                if (from / 8 == startRow && (occupied & (1L << twoSteps)) == 0 && (allowed & (1L << twoSteps)) != 0) {
+                    list.add(Move.of(from, twoSteps, Move.DOUBLE_PUSH));
+                }
+            }
+            long captures = Attacks.PAWN[team.ordinal()][from] & enemies & allowed;
+            for (; captures != 0; captures &= captures - 1) {
+                addPawnMove(from, Long.numberOfTrailingZeros(captures), promotionRow, Move.CAPTURE, list);
+            }
+        }
+
+        ChessPosition enPassant = board.getEnPassantPosition();
+        if (enPassant != null) {
+            ChessGame.TeamColor opponent = opponent(team);
+            int target = ChessBoard.squareOf(enPassant);
+            int victim = target - direction;
+            // The target must be empty with an enemy pawn just past it
+            if ((occupied & (1L << target)) == 0 && victim >= 0 && victim < 64
+                    && (board.getPieces(opponent, ChessPiece.PieceType.PAWN) & (1L << victim)) != 0) {
+                // Our pawns that could capture onto the target are the squares an enemy pawn there would attack
+                for (long attackers = Attacks.PAWN[opponent.ordinal()][target] & pawns; attackers != 0;
+                     attackers &= attackers - 1) {
+                    int from = Long.numberOfTrailingZeros(attackers);
+                    // Both pawns leave the rank at once, so look at the king's attackers
+                    // on the board as it will be rather than reusing the masks
+                    long after = (occupied & ~(1L << from) & ~(1L << victim)) | (1L << target);
+                    if (king < 0 || (board.attackersOf(king, opponent, after) & ~(1L << victim)) == 0) {
+                        list.add(Move.of(from, target, Move.EN_PASSANT));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addPawnMove(int from, int to, int promotionRow, int flags, MoveList list) {
+        if (to / 8 == promotionRow) {
+            for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                list.add(Move.of(from, to, promotion, flags));
+            }
+        } else {
+            list.add(Move.of(from, to, flags));
+        }
+    }
+
+    // Called only when the king is not in check
+    private static void addCastlingMoves(ChessBoard board, ChessGame.TeamColor team, int from, long occupied, MoveList list) {
+        boolean white = team == ChessGame.TeamColor.WHITE;
+        int kingHome = white ? 4 : 60;
+        int rights = board.getCastlingRights()
+                & (white ? ChessBoard.WHITE_KINGSIDE | ChessBoard.WHITE_QUEENSIDE : ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE);
+        if (from != kingHome || rights == 0) {
+            return;
+        }
+        ChessGame.TeamColor opponent = opponent(team);
+        long rooks = board.getPieces(team, ChessPiece.PieceType.ROOK);
+        int kingside = white ? ChessBoard.WHITE_KINGSIDE : ChessBoard.BLACK_KINGSIDE;
+        // The squares between king and rook must be empty, and the king may neither pass
+        // through nor land on an attacked square
+        if ((rights & kingside) != 0 && (rooks & (1L << (from + 3))) != 0 && (occupied & (3L << (from + 1))) == 0
+                && !board.isSquareAttacked(from + 1, opponent) && !board.isSquareAttacked(from + 2, opponent)) {
+            list.add(Move.of(from, from + 2, Move.CASTLE));
+        }
+        if ((rights & ~kingside) != 0 && (rooks & (1L << (from - 4))) != 0 && (occupied & (7L << (from - 3))) == 0
+                && !board.isSquareAttacked(from - 1, opponent) && !board.isSquareAttacked(from - 2, opponent)) {
+            list.add(Move.of(from, from - 2, Move.CASTLE));
+        }
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor team) {
+        return team == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
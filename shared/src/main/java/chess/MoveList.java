@@ -0,0 +1,40 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of packed moves (see {@link Move}) backed by a plain int array, so
+ * generating moves into it never boxes or allocates.
+ */
+final class MoveList {
+    // No legal chess position has more than 218 moves; only odd hand-built boards grow it
+    private int[] moves = new int[256];
+    private int size;
+
+    void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    int get(int index) {
+        return moves[index];
+    }
+
+    void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void truncate(int newSize) {
+        size = newSize;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
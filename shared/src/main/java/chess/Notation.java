@@ -0,0 +1,287 @@
+package chess;
+
+/**
+ * Converts between moves and text: Standard Algebraic Notation (SAN), as used in PGN
+ * files ({@code e4}, {@code Nbd7}, {@code exd5}, {@code O-O}, {@code e8=Q+}), and the
+ * long algebraic form used by UCI engines ({@code e2e4}, {@code e7e8q}).
+ * <p>
+ * SAN only makes sense against a position. Both directions generate the side to move's
+ * legal moves once: reading picks the single move that fits the piece, destination,
+ * promotion and any disambiguating file or rank, and writing compares the move with the
+ * others that reach the same square. The check and mate suffix is found by making the
+ * move on a copy of the game's board, so the game itself is never touched. UCI needs no
+ * position.
+ */
+public final class Notation {
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final String PIECE_LETTERS = "KQBNRP";
+
+    private Notation() {
+    }
+
+    /**
+     * Writes a legal move in SAN, with only as much disambiguation as the position needs
+     * and a {@code +} or {@code #} suffix for check or mate. The game is left unchanged.
+     *
+     * @throws InvalidMoveException if the move is not legal for the side to move
+     */
+    public static String toSan(ChessGame game, ChessMove move) throws InvalidMoveException {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor team = game.getTeamTurn();
+        MoveGenerator generator = MoveGenerator.forThread();
+        MoveList legal = generator.scratch();
+        generator.generateLegal(board, team, -1L, legal);
+
+        int wanted = Move.of(move);
+        int packed = -1;
+        for (int i = 0; i < legal.size(); i++) {
+            if ((legal.get(i) & 0x7FFF) == wanted) {
+                packed = legal.get(i);
+                break;
+            }
+        }
+        if (packed < 0) {
+            throw new InvalidMoveException("Not a legal move: " + move);
+        }
+
+        StringBuilder san = new StringBuilder(8);
+        int from = Move.from(packed);
+        int to = Move.to(packed);
+        ChessPiece.PieceType pieceType = board.getPiece(from).getPieceType();
+        if ((packed & Move.CASTLE) != 0) {
+            san.append((to & 7) == 6 ? "O-O" : "O-O-O");
+        } else if (pieceType == ChessPiece.PieceType.PAWN) {
+            if (Move.isCapture(packed)) {
+                san.append((char) ('a' + (from & 7))).append('x');
+            }
+            appendSquare(san, to);
+            if (Move.promotion(packed) != null) {
+                san.append('=').append(PIECE_LETTERS.charAt(Move.promotion(packed).ordinal()));
+            }
+        } else {
+            san.append(PIECE_LETTERS.charAt(pieceType.ordinal()));
+            // Other pieces of the same type that can reach the same square
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            for (int i = 0; i < legal.size(); i++) {
+                int other = Move.from(legal.get(i));
+                if (other != from && Move.to(legal.get(i)) == to && board.getPiece(other).getPieceType() == pieceType) {
+                    ambiguous = true;
+                    sameFile |= (other & 7) == (from & 7);
+                    sameRank |= (other >>> 3) == (from >>> 3);
+                }
+            }
+            if (ambiguous && (!sameFile || sameRank)) {
+                san.append((char) ('a' + (from & 7)));
+            }
+            if (sameFile) {
+                san.append((char) ('1' + (from >>> 3)));
+            }
+            if (Move.isCapture(packed)) {
+                san.append('x');
+            }
+            appendSquare(san, to);
+        }
+
+        // Play the move on a copy so the caller's board is never modified
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(team);
+        ChessBoard after = new ChessBoard(board);
+        after.makeMove(packed);
+        long kings = after.getPieces(opponent, ChessPiece.PieceType.KING);
+        if (kings != 0 && after.isSquareAttacked(Long.numberOfTrailingZeros(kings), team)) {
+            MoveList replies = generator.list(0);
+            generator.generateLegal(after, opponent, -1L, replies);
+            san.append(replies.size() == 0 ? '#' : '+');
+        }
+        return san.toString();
+    }
+
+    /**
+     * Writes a move in UCI long algebraic notation: start square, end square and a lower
+     * case promotion piece if any, e.g. {@code e2e4}, {@code e1g1}, {@code a7a8q}.
+     */
+    public static String toUci(ChessMove move) {
+        StringBuilder uci = new StringBuilder(5);
+        appendSquare(uci, ChessBoard.squareOf(move.getStartPosition()));
+        appendSquare(uci, ChessBoard.squareOf(move.getEndPosition()));
+        if (move.getPromotionPiece() != null) {
+            uci.append(Character.toLowerCase(PIECE_LETTERS.charAt(move.getPromotionPiece().ordinal())));
+        }
+        return uci.toString();
+    }
+
+    /**
+     * Reads a move in UCI long algebraic notation. Only the syntax is checked; whether the
+     * move is legal depends on the position it is played in.
+     *
+     * @throws InvalidMoveException if the string is not a UCI move
+     */
+    public static ChessMove parseUci(CharSequence uci) throws InvalidMoveException {
+        int length = uci.length();
+        if ((length != 4 && length != 5) || !isFile(uci.charAt(0)) || !isRank(uci.charAt(1))
+                || !isFile(uci.charAt(2)) || !isRank(uci.charAt(3))) {
+            throw new InvalidMoveException("Not a UCI move: " + uci);
+        }
+        ChessPiece.PieceType promotion = null;
+        if (length == 5) {
+            promotion = pieceType(Character.toUpperCase(uci.charAt(4)));
+            if (promotion == null || promotion == ChessPiece.PieceType.KING) {
+                throw new InvalidMoveException("Not a UCI move: " + uci);
+            }
+        }
+        return ChessMove.of(ChessPosition.of(uci.charAt(1) - '0', uci.charAt(0) - 'a' + 1),
+                ChessPosition.of(uci.charAt(3) - '0', uci.charAt(2) - 'a' + 1), promotion);
+    }
+
+    /**
+     * Finds the legal move a SAN string describes in the game's current position. Check,
+     * mate and annotation suffixes ({@code + # ! ?}) are accepted and ignored, as are
+     * castling written with zeros and promotions written without {@code =}.
+     *
+     * @throws InvalidMoveException if the string is not SAN, or matches no legal move or
+     *                              more than one
+     */
+    public static ChessMove parseSan(ChessGame game, CharSequence san) throws InvalidMoveException {
+        return Move.toChessMove(parseSan(game.getBoard(), game.getTeamTurn(), san));
+    }
+
+    /**
+     * Plays the legal move a SAN string describes in the game's current position. The
+     * move is only checked while it is read, unlike passing {@link #parseSan(ChessGame,
+     * CharSequence)} to {@link ChessGame#makeMove}, which checks it a second time.
+     *
+     * @throws InvalidMoveException if the string is not SAN, or matches no legal move or
+     *                              more than one
+     */
+    public static void playSan(ChessGame game, CharSequence san) throws InvalidMoveException {
+        game.playMove(parseSan(game.getBoard(), game.getTeamTurn(), san));
+    }
+
+    /**
+     * @return the packed move (see {@link Move}) the SAN string describes for a team
+     */
+    static int parseSan(ChessBoard board, ChessGame.TeamColor team, CharSequence san) throws InvalidMoveException {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2) {
+            throw new InvalidMoveException("Not a SAN move: " + san);
+        }
+
+        MoveList legal = MoveGenerator.forThread().scratch();
+        MoveGenerator.forThread().generateLegal(board, team, -1L, legal);
+
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            boolean queenside;
+            if (isCastling(san, end, first, 3)) {
+                queenside = false;
+            } else if (isCastling(san, end, first, 5)) {
+                queenside = true;
+            } else {
+                throw new InvalidMoveException("Not a SAN move: " + san);
+            }
+            for (int i = 0; i < legal.size(); i++) {
+                int move = legal.get(i);
+                if ((move & Move.CASTLE) != 0 && (Move.to(move) & 7) == (queenside ? 2 : 6)) {
+                    return move;
+                }
+            }
+            throw new InvalidMoveException("Castling is not legal here: " + san);
+        }
+
+        int i = 0;
+        ChessPiece.PieceType pieceType = pieceType(first);
+        if (pieceType == null) {
+            pieceType = ChessPiece.PieceType.PAWN;
+        } else {
+            i++;
+        }
+
+        // What is left is [file][rank][x]square[=promotion]
+        ChessPiece.PieceType promotion = null;
+        int squareEnd = end;
+        if (squareEnd > i && pieceType(san.charAt(squareEnd - 1)) != null) {
+            promotion = pieceType(san.charAt(squareEnd - 1));
+            squareEnd--;
+            if (squareEnd > i && san.charAt(squareEnd - 1) == '=') {
+                squareEnd--;
+            }
+        }
+        if (squareEnd - i < 2 || !isFile(san.charAt(squareEnd - 2)) || !isRank(san.charAt(squareEnd - 1))) {
+            throw new InvalidMoveException("Not a SAN move: " + san);
+        }
+        int to = ChessBoard.squareOf(san.charAt(squareEnd - 1) - '0', san.charAt(squareEnd - 2) - 'a' + 1);
+
+        int fromFile = -1;
+        int fromRank = -1;
+        for (; i < squareEnd - 2; i++) {
+            char c = san.charAt(i);
+            if (isFile(c) && fromFile < 0 && fromRank < 0) {
+                fromFile = c - 'a';
+            } else if (isRank(c) && fromRank < 0) {
+                fromRank = c - '1';
+            } else if (c != 'x' || i != squareEnd - 3) {
+                throw new InvalidMoveException("Not a SAN move: " + san);
+            }
+        }
+
+        int match = -1;
+        for (int m = 0; m < legal.size(); m++) {
+            int move = legal.get(m);
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.promotion(move) != promotion
+                    || board.getPiece(from).getPieceType() != pieceType
+                    || (fromFile >= 0 && (from & 7) != fromFile)
+                    || (fromRank >= 0 && (from >>> 3) != fromRank)) {
+                continue;
+            }
+            if (match >= 0) {
+                throw new InvalidMoveException("Ambiguous SAN move: " + san);
+            }
+            match = move;
+        }
+        if (match < 0) {
+            throw new InvalidMoveException("No legal move matches " + san);
+        }
+        return match;
+    }
+
+    // "O-O" (length 3) or "O-O-O" (length 5), written with letter O or zeros throughout
+    private static boolean isCastling(CharSequence san, int end, char o, int length) {
+        if (end != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (san.charAt(i) != (i % 2 == 0 ? o : '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        return switch (c) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            default -> null;
+        };
+    }
+
+    private static void appendSquare(StringBuilder out, int square) {
+        out.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+}
@@ -3,53 +3,46 @@ package chess;
 import java.util.Collection;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashSet;
 
 public class PawnMoves {
   public static Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition myPosition, ChessPiece.PieceType pieceType, ChessGame.TeamColor teamColor) {
     List<ChessMove> moves = new ArrayList<>();
     // Determine direction and start row based on pawn color
-    int direction = teamColor == ChessGame.TeamColor.WHITE ? 1 : -1;
+    int direction = teamColor == ChessGame.TeamColor.WHITE ? 8 : -8;
     int startRow = teamColor == ChessGame.TeamColor.WHITE ? 2 : 7;
     int promotionRow = teamColor == ChessGame.TeamColor.WHITE ? 8 : 1;
+    int from = ChessBoard.squareOf(myPosition);
+    long occupied = board.getOccupied();
 
-    // Single step forward
-    ChessPosition oneStepForward = new ChessPosition(myPosition.getRow() + direction, myPosition.getColumn());
-    if (board.isPositionValid(oneStepForward) && !board.isPieceAt(oneStepForward)) {
-      addPromotionMoves(moves, myPosition, oneStepForward, promotionRow);
-    }
-
-    // Initial two-step forward move
-    if (myPosition.getRow() == startRow) {
-      ChessPosition twoStepsForward = new ChessPosition(myPosition.getRow() + (2 * direction), myPosition.getColumn());
-      if (!board.isPieceAt(oneStepForward) && !board.isPieceAt(twoStepsForward)) {
-        moves.add(new ChessMove(myPosition, twoStepsForward, null));
+    // Single step forward, then the initial two-step move through an empty square
+    int oneStep = from + direction;
+    if (oneStep >= 0 && oneStep < 64 && (occupied & (1L << oneStep)) == 0) {
+      addPromotionMoves(moves, from, oneStep, promotionRow);
+      int twoSteps = oneStep + direction;
+      if (myPosition.getRow() == startRow && (occupied & (1L << twoSteps)) == 0) {
+        moves.add(ChessMove.of(from, twoSteps, null));
       }
     }
 
-    // Capturing moves
-    int[] captureOffsets = {-1, 1};
-    for (int captureOffset : captureOffsets) {
-      ChessPosition capturePosition = new ChessPosition(myPosition.getRow() + direction, myPosition.getColumn() + captureOffset);
-      if (board.isPositionValid(capturePosition) && board.isPieceAt(capturePosition) &&
-              board.getPiece(capturePosition).getTeamColor() != teamColor) {
-        addPromotionMoves(moves, myPosition, capturePosition, promotionRow);
-      }
+    // Capturing moves come from the pawn attack table
+    ChessGame.TeamColor opponent = teamColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    long captures = Attacks.PAWN[teamColor.ordinal()][from] & board.getTeamPieces(opponent);
+    for (; captures != 0; captures &= captures - 1) {
+      addPromotionMoves(moves, from, Long.numberOfTrailingZeros(captures), promotionRow);
     }
 
-    // Convert the list to a HashSet before returning
-    return new HashSet<>(moves);
+    return moves;
   }
 
-  private static void addPromotionMoves(List<ChessMove> moves, ChessPosition myPosition, ChessPosition newPosition, int promotionRow) {
-    if (newPosition.getRow() == promotionRow) {
+  private static void addPromotionMoves(List<ChessMove> moves, int from, int to, int promotionRow) {
+    if (to / 8 + 1 == promotionRow) {
       // Add all promotion possibilities in the order expected by the test: ROOK, KNIGHT, BISHOP, QUEEN
-      moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.ROOK));
-      moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.KNIGHT));
-      moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.BISHOP));
-      moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.QUEEN));
+      moves.add(ChessMove.of(from, to, ChessPiece.PieceType.ROOK));
+      moves.add(ChessMove.of(from, to, ChessPiece.PieceType.KNIGHT));
+      moves.add(ChessMove.of(from, to, ChessPiece.PieceType.BISHOP));
+      moves.add(ChessMove.of(from, to, ChessPiece.PieceType.QUEEN));
     } else {
-      moves.add(new ChessMove(myPosition, newPosition, null));
+      moves.add(ChessMove.of(from, to, null));
     }
   }
 }
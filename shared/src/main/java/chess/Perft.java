@@ -0,0 +1,260 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft ("performance test") driver: counts the leaf nodes of the legal move tree to a
+ * fixed depth. The counts for the standard reference positions are well known, so any
+ * difference points at a move generation bug, and the time taken measures how fast
+ * the move generator behind {@link ChessGame#validMoves} enumerates the tree.
+ * <p>
+ * Run from the command line with {@code java chess.Perft [position] [depth] [threads]},
+ * where position is one of the names in {@link #POSITIONS} (default "start"). With more
+ * than one thread the tree is split across a {@link ForkJoinPool}.
+ */
+public class Perft {
+
+    /**
+     * A reference position with its published leaf counts for depths 1, 2, 3, ...
+     * The board uses the same row-per-line diagram as the passoff tests, white at the bottom.
+     */
+    public record Position(String name, String board, ChessGame.TeamColor turn, int castlingRights,
+                           long[] expectedNodes) {
+
+        public ChessGame toGame() {
+            ChessBoard position = loadBoard(board);
+            position.setCastlingRights(castlingRights);
+            ChessGame game = new ChessGame();
+            game.resetPosition(position, turn, new long[0], 0, 1);
+            return game;
+        }
+    }
+
+    /**
+     * Result of one perft run.
+     */
+    public record Result(int depth, long nodes, long nanos) {
+
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    public static final List<Position> POSITIONS = List.of(
+            new Position("start", """
+                    |r|n|b|q|k|b|n|r|
+                    |p|p|p|p|p|p|p|p|
+                    | | | | | | | | |
+                    | | | | | | | | |
+                    | | | | | | | | |
+                    | | | | | | | | |
+                    |P|P|P|P|P|P|P|P|
+                    |R|N|B|Q|K|B|N|R|
+                    """, ChessGame.TeamColor.WHITE, ChessBoard.ALL_CASTLING_RIGHTS,
+                    new long[]{20, 400, 8_902, 197_281, 4_865_609, 119_060_324}),
+            new Position("kiwipete", """
+                    |r| | | |k| | |r|
+                    |p| |p|p|q|p|b| |
+                    |b|n| | |p|n|p| |
+                    | | | |P|N| | | |
+                    | |p| | |P| | | |
+                    | | |N| | |Q| |p|
+                    |P|P|P|B|B|P|P|P|
+                    |R| | | |K| | |R|
+                    """, ChessGame.TeamColor.WHITE, ChessBoard.ALL_CASTLING_RIGHTS,
+                    new long[]{48, 2_039, 97_862, 4_085_603, 193_690_690}),
+            new Position("position3", """
+                    | | | | | | | | |
+                    | | |p| | | | | |
+                    | | | |p| | | | |
+                    |K|P| | | | | |r|
+                    | |R| | | |p| |k|
+                    | | | | | | | | |
+                    | | | | |P| |P| |
+                    | | | | | | | | |
+                    """, ChessGame.TeamColor.WHITE, 0,
+                    new long[]{14, 191, 2_812, 43_238, 674_624, 11_030_083}),
+            new Position("position4", """
+                    |r| | | |k| | |r|
+                    |P|p|p|p| |p|p|p|
+                    | |b| | | |n|b|N|
+                    |n|P| | | | | | |
+                    |B|B|P| |P| | | |
+                    |q| | | | |N| | |
+                    |P|p| |P| | |P|P|
+                    |R| | |Q| |R|K| |
+                    """, ChessGame.TeamColor.WHITE, ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE,
+                    new long[]{6, 264, 9_467, 422_333, 15_833_292}),
+            new Position("position5", """
+                    |r|n|b|q| |k| |r|
+                    |p|p| |P|b|p|p|p|
+                    | | |p| | | | | |
+                    | | | | | | | | |
+                    | | |B| | | | | |
+                    | | | | | | | | |
+                    |P|P|P| |N|n|P|P|
+                    |R|N|B|Q|K| | |R|
+                    """, ChessGame.TeamColor.WHITE, ChessBoard.WHITE_KINGSIDE | ChessBoard.WHITE_QUEENSIDE,
+                    new long[]{44, 1_486, 62_379, 2_103_487, 89_941_194})
+    );
+
+    public static Position position(String name) {
+        for (Position position : POSITIONS) {
+            if (position.name().equalsIgnoreCase(name)) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException("Unknown perft position: " + name);
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree below the game's current position.
+     * The game is left exactly as it was found.
+     */
+    public static Result run(ChessGame game, int depth) {
+        long start = System.nanoTime();
+        long nodes = depth == 0 ? 1 : perft(game, depth);
+        return new Result(depth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the same leaf nodes as {@link #run(ChessGame, int)}, splitting the top plies
+     * of the tree into tasks on a fork/join pool. Every task walks its subtree on its
+     * own copy of the board, so threads share nothing but the counts they return.
+     */
+    public static Result run(ChessGame game, int depth, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        long nodes = depth == 0 ? 1
+                : pool.invoke(new PerftTask(new ChessBoard(game.getBoard()), game.getTeamTurn(), depth, 0));
+        return new Result(depth, nodes, System.nanoTime() - start);
+    }
+
+    // Subtrees this shallow are cheaper to walk than to hand to another thread
+    private static final int MIN_SPLIT_DEPTH = 3;
+    // Splitting the top two plies gives hundreds of tasks, enough to keep every core busy
+    private static final int MAX_SPLIT_PLY = 2;
+
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only ever run in this process's pool, so the board is never serialized
+        private final transient ChessBoard board;
+        private final ChessGame.TeamColor team;
+        private final int depth;
+        private final int ply;
+
+        PerftTask(ChessBoard board, ChessGame.TeamColor team, int depth, int ply) {
+            this.board = board;
+            this.team = team;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected Long compute() {
+            MoveGenerator generator = MoveGenerator.forThread();
+            if (depth < MIN_SPLIT_DEPTH || ply >= MAX_SPLIT_PLY) {
+                // Runs start to finish without joining, so the thread's move lists are ours alone
+                return perft(board, team, depth, generator, 0);
+            }
+            MoveList moves = generator.list(0);
+            generator.generateLegal(board, team, -1L, moves);
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessBoard child = new ChessBoard(board);
+                child.makeMove(moves.get(i));
+                children.add(new PerftTask(child, MoveGenerator.opponent(team), depth - 1, ply + 1));
+            }
+            long nodes = 0;
+            for (PerftTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static long perft(ChessGame game, int depth) {
+        return perft(game.getBoard(), game.getTeamTurn(), depth, MoveGenerator.forThread(), 0);
+    }
+
+    private static long perft(ChessBoard board, ChessGame.TeamColor team, int depth, MoveGenerator generator, int ply) {
+        MoveList moves = generator.list(ply);
+        generator.generateLegal(board, team, -1L, moves);
+        if (depth == 1) {
+            // Bulk counting: the last ply only needs the number of legal moves
+            return moves.size();
+        }
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(team);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += perft(board, opponent, depth - 1, generator, ply + 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    static ChessBoard loadBoard(String boardText) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int column = 1;
+        for (char c : boardText.toCharArray()) {
+            switch (c) {
+                case '\n' -> {
+                    column = 1;
+                    row--;
+                }
+                case ' ' -> column++;
+                case '|' -> {
+                }
+                default -> {
+                    ChessGame.TeamColor color = Character.isLowerCase(c) ? ChessGame.TeamColor.BLACK
+                            : ChessGame.TeamColor.WHITE;
+                    board.addPiece(ChessPosition.of(row, column), ChessPiece.of(color, pieceType(c)));
+                    column++;
+                }
+            }
+        }
+        return board;
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece: " + c);
+        };
+    }
+
+    public static void main(String[] args) {
+        Position position = position(args.length > 0 ? args[0] : "start");
+        int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+
+        System.out.println("Perft " + position.name() + (pool == null ? "" : " on " + threads + " threads"));
+        boolean allMatched = true;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Result result = pool == null ? run(position.toGame(), depth) : run(position.toGame(), depth, pool);
+            String expected = "";
+            if (depth <= position.expectedNodes().length) {
+                long expectedNodes = position.expectedNodes()[depth - 1];
+                boolean matched = expectedNodes == result.nodes();
+                allMatched &= matched;
+                expected = matched ? "  ok" : "  MISMATCH (expected " + expectedNodes + ")";
+            }
+            System.out.printf("depth %d: %,d nodes in %.3f s, %,d nodes/s%s%n", depth, result.nodes(),
+                    result.nanos() / 1e9, result.nodesPerSecond(), expected);
+        }
+        if (!allMatched) {
+            System.exit(1);
+        }
+    }
+}
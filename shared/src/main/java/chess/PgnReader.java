@@ -0,0 +1,270 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams games out of a PGN file of any size.
+ * <p>
+ * The file is memory-mapped one chunk at a time and scanned for game boundaries, a tag
+ * line starting after some movetext and outside any comment, so only the current chunk and the game being cut
+ * out are held in memory. {@link #nextGame()} only splits the text; parsing it with
+ * {@link #parse(String)} and replaying the moves can then happen on other threads.
+ * Games larger than the size limit are skipped and counted rather than read.
+ */
+public class PgnReader implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_BYTES = 64 << 20;
+    public static final int DEFAULT_MAX_GAME_BYTES = 1 << 20;
+
+    /**
+     * A game as written in the file.
+     *
+     * @param tags   the tag pairs in file order, e.g. White, Black, Event
+     * @param moves  the main line's moves in SAN, without move numbers, comments or variations
+     * @param result the game termination marker: 1-0, 0-1, 1/2-1/2 or *
+     */
+    public record PgnGame(Map<String, String> tags, List<String> moves, String result) {
+    }
+
+    private final FileChannel channel;
+    private final int chunkBytes;
+    private final int maxGameBytes;
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+
+    // The game being cut out, and where its scan is up to
+    private byte[] game = new byte[4096];
+    private int gameLength;
+    private boolean oversized;
+    private boolean atLineStart = true;
+    private boolean inTagLine;
+    // Inside a {...} comment, which may span lines, or a ; comment running to the line end
+    private boolean inComment;
+    private boolean inLineComment;
+    private boolean sawMovetext;
+    private long oversizedGames;
+
+    public PgnReader(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_BYTES, DEFAULT_MAX_GAME_BYTES);
+    }
+
+    /**
+     * @param chunkBytes   how much of the file to map at once
+     * @param maxGameBytes games longer than this are skipped
+     */
+    public PgnReader(Path file, int chunkBytes, int maxGameBytes) throws IOException {
+        if (chunkBytes < 1 || maxGameBytes < 1) {
+            throw new IllegalArgumentException("Chunk and game sizes must be positive");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.chunkBytes = chunkBytes;
+        this.maxGameBytes = maxGameBytes;
+    }
+
+    /**
+     * @return the text of the next game, or null at the end of the file
+     */
+    public String nextGame() throws IOException {
+        while (true) {
+            if (chunk == null || !chunk.hasRemaining()) {
+                long next = chunk == null ? 0 : chunkStart + chunk.capacity();
+                if (next >= channel.size()) {
+                    return finishGame();
+                }
+                chunkStart = next;
+                chunk = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(chunkBytes, channel.size() - next));
+            }
+            while (chunk.hasRemaining()) {
+                byte b = chunk.get(chunk.position());
+                if (atLineStart && b == '[' && sawMovetext && !inComment) {
+                    // A tag line after movetext starts the next game; leave it for the next call
+                    String text = finishGame();
+                    if (text != null) {
+                        return text;
+                    }
+                    continue;
+                }
+                chunk.position(chunk.position() + 1);
+                if (atLineStart) {
+                    inTagLine = b == '[' && !inComment;
+                }
+                if (inComment) {
+                    inComment = b != '}';
+                } else if (!inTagLine && !inLineComment) {
+                    inComment = b == '{';
+                    inLineComment = b == ';';
+                }
+                if (b == '\n') {
+                    atLineStart = true;
+                    inLineComment = false;
+                } else if (b != '\r') {
+                    atLineStart = false;
+                    if (!inTagLine && b != ' ' && b != '\t') {
+                        sawMovetext = true;
+                    }
+                }
+                append(b);
+            }
+        }
+    }
+
+    /**
+     * @return how many games were skipped for being larger than the size limit
+     */
+    public long oversizedGames() {
+        return oversizedGames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunk = null;
+        channel.close();
+    }
+
+    private void append(byte b) {
+        if (oversized) {
+            return;
+        }
+        if (gameLength == maxGameBytes) {
+            oversized = true;
+            return;
+        }
+        if (gameLength == game.length) {
+            game = Arrays.copyOf(game, Math.min(maxGameBytes, game.length * 2));
+        }
+        game[gameLength++] = b;
+    }
+
+    // Returns the game read so far, or null if there was nothing but whitespace or it was too large
+    private String finishGame() {
+        String text = null;
+        if (oversized) {
+            oversizedGames++;
+        } else if (sawMovetext || containsTag()) {
+            text = new String(game, 0, gameLength, StandardCharsets.UTF_8);
+        }
+        gameLength = 0;
+        oversized = false;
+        sawMovetext = false;
+        inComment = false;
+        inLineComment = false;
+        atLineStart = true;
+        return text;
+    }
+
+    private boolean containsTag() {
+        for (int i = 0; i < gameLength; i++) {
+            if (game[i] == '[') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the text of one game into its tags, main line and result. Comments, variations,
+     * numeric annotations and move numbers are dropped.
+     *
+     * @throws IllegalArgumentException if a tag or comment is malformed or the movetext is empty
+     */
+    public static PgnGame parse(String text) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        String result = null;
+        int length = text.length();
+        int variationDepth = 0;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '[' && variationDepth == 0 && moves.isEmpty()) {
+                i = parseTag(text, i, tags);
+            } else if (c == '{') {
+                int close = text.indexOf('}', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unterminated comment at index " + i);
+                }
+                i = close + 1;
+            } else if (c == ';' || (c == '%' && (i == 0 || text.charAt(i - 1) == '\n'))) {
+                int newline = text.indexOf('\n', i);
+                i = newline < 0 ? length : newline + 1;
+            } else if (c == '(') {
+                variationDepth++;
+                i++;
+            } else if (c == ')') {
+                if (variationDepth == 0) {
+                    throw new IllegalArgumentException("Unmatched ')' at index " + i);
+                }
+                variationDepth--;
+                i++;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(text.charAt(i))
+                        && "{}();[".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                if (i == start) {
+                    // A stray '}' or '[' that no branch above consumes
+                    throw new IllegalArgumentException("Unexpected '" + c + "' at index " + i);
+                }
+                if (variationDepth > 0) {
+                    continue;
+                }
+                String token = text.substring(start, i);
+                if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*")) {
+                    result = token;
+                } else if (Character.isDigit(token.charAt(0)) && token.indexOf('.') >= 0) {
+                    // A move number, possibly run into its move as in "12.Nf3"
+                    int dots = token.lastIndexOf('.');
+                    if (dots + 1 < token.length()) {
+                        moves.add(token.substring(dots + 1));
+                    }
+                } else if (token.charAt(0) != '$') {
+                    moves.add(token);
+                }
+            }
+        }
+        if (variationDepth != 0) {
+            throw new IllegalArgumentException("Unterminated variation");
+        }
+        if (moves.isEmpty() && result == null) {
+            throw new IllegalArgumentException("Game has no movetext");
+        }
+        return new PgnGame(tags, moves, result == null ? "*" : result);
+    }
+
+    // [Name "Value"], with \" and \\ escapes in the value
+    private static int parseTag(String text, int i, Map<String, String> tags) {
+        int close = text.indexOf('\n', i);
+        int end = close < 0 ? text.length() : close;
+        int quote = text.indexOf('"', i);
+        if (quote < 0 || quote > end) {
+            throw new IllegalArgumentException("Malformed tag at index " + i);
+        }
+        String name = text.substring(i + 1, quote).trim();
+        StringBuilder value = new StringBuilder();
+        int j = quote + 1;
+        for (; j < end && text.charAt(j) != '"'; j++) {
+            char c = text.charAt(j);
+            if (c == '\\' && j + 1 < end) {
+                c = text.charAt(++j);
+            }
+            value.append(c);
+        }
+        if (name.isEmpty() || j >= end) {
+            throw new IllegalArgumentException("Malformed tag at index " + i);
+        }
+        tags.put(name, value.toString());
+        return end;
+    }
+}
@@ -0,0 +1,488 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Alpha-beta search for hints and computer opponents.
+ * <p>
+ * The search deepens one ply at a time until the depth limit or the time budget runs
+ * out, and reports the last iteration that finished. Each iteration is a negamax
+ * alpha-beta search followed by a captures-only quiescence search at the leaves, so
+ * the evaluation is never taken in the middle of an exchange. Moves are tried in the
+ * order most likely to cause a cutoff: the previous iteration's principal variation,
+ * captures by most valuable victim and least valuable attacker, two killer moves per
+ * ply, captures that lose material in a {@link StaticExchange}, then quiet moves by
+ * their history score. The quiescence search skips losing captures altogether. Results are kept in a
+ * {@link TranspositionTable}, which both cuts off positions reached again by another
+ * move order and supplies the best move found last time to try first.
+ * <p>
+ * The search works on its own copy of the game's board. A Search object keeps its
+ * move ordering tables between calls and is meant to be used by one thread at a time;
+ * {@link #stop()} may be called from any thread. Several Search objects may share one
+ * transposition table.
+ */
+public class Search {
+    public static final int MATE = 100_000;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+    static final int MAX_PLY = 128;
+    private static final int INFINITY = MATE + 1;
+
+    // Move ordering scores; quiet moves score their history, kept below KILLER_SCORE
+    private static final int PV_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int KILLER_SCORE = 90_000;
+    private static final int LOSING_CAPTURE_SCORE = 60_000;
+    private static final int HISTORY_LIMIT = 50_000;
+
+    // Triangular principal variation table: pvTable[ply] holds the line from that ply on
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private int[] previousPv = new int[0];
+    private boolean followingPv;
+
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    // history[team][from][to]: how often a quiet move caused a cutoff, weighted by depth
+    private final int[][][] history = new int[2][64][64];
+    private final int[][] orderScores = new int[MAX_PLY + 1][256];
+
+    // Position keys of the game since its last irreversible move, then the search path,
+    // with the halfmove clock of each entry
+    private long[] keys = new long[256];
+    private int[] clocks = new int[256];
+    private int keyCount;
+
+    private final TranspositionTable table;
+    private ChessBoard board;
+    private MoveGenerator generator;
+    private long nodes;
+    private long deadline;
+    private boolean abortable;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param table transposition table to use, which may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Searches the game's current position for the side to move. At least one ply is
+     * always searched completely, so a legal move comes back even with no time left.
+     *
+     * @param maxDepth        the deepest iteration to run, in plies
+     * @param timeLimitMillis wall-clock budget; the iteration running when it expires is discarded
+     */
+    public SearchResult search(ChessGame game, int maxDepth, long timeLimitMillis) {
+        stopRequested = false;
+        table.newSearch();
+        return search(game, 1, maxDepth, timeLimitMillis, false);
+    }
+
+    /**
+     * Runs the iterations from firstDepth to maxDepth. A helper search (see
+     * {@link LazySmpSearch}) may stop at any moment, even before it has a result, and
+     * then returns null. The caller calls {@link #clearStop()} and starts the table's new
+     * search beforehand.
+     */
+    SearchResult search(ChessGame game, int firstDepth, int maxDepth, long timeLimitMillis, boolean helper) {
+        long start = System.nanoTime();
+        deadline = start + timeLimitMillis * 1_000_000L;
+        stopped = false;
+        abortable = helper;
+        nodes = 0;
+        board = new ChessBoard(game.getBoard());
+        generator = MoveGenerator.forThread();
+        ChessGame.TeamColor team = game.getTeamTurn();
+
+        long[] recent = game.recentPositionKeys();
+        ensureKeyCapacity(recent.length + MAX_PLY + 1);
+        System.arraycopy(recent, 0, keys, 0, recent.length);
+        keyCount = recent.length;
+        clocks[keyCount - 1] = game.getHalfmoveClock();
+
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, 0);
+        }
+        ageHistory();
+        previousPv = new int[0];
+
+        SearchResult result = null;
+        for (int depth = Math.max(1, firstDepth); depth <= Math.clamp(maxDepth, 1, MAX_PLY - 1); depth++) {
+            followingPv = true;
+            int score = negamax(team, depth, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+            previousPv = principalVariation(team, depth);
+            result = result(score, depth, start);
+            abortable = true;
+            if (result.isMate() || result.bestMove() == null) {
+                // A forced mate or a finished game won't change with more depth
+                break;
+            }
+        }
+        if (result == null) {
+            return null;
+        }
+        return new SearchResult(result.bestMove(), result.principalVariation(), result.score(), result.depth(),
+                nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to return as soon as it has a result.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    TranspositionTable table() {
+        return table;
+    }
+
+    // The triangular table loses the tail of the line below a transposition table cutoff,
+    // so follow the table's best moves to fill the line out to the full depth
+    private int[] principalVariation(ChessGame.TeamColor team, int depth) {
+        int[] line = Arrays.copyOf(pvTable[0], Math.max(pvLength[0], depth));
+        int length = 0;
+        ChessGame.TeamColor side = team;
+        for (; length < line.length; length++) {
+            int move = length < pvLength[0] ? line[length] : TranspositionTable.move(table.probe(keys[keyCount - 1]));
+            if (move == 0 || (length > 0 && isDraw()) || !isLegal(move, side, length)) {
+                break;
+            }
+            line[length] = move;
+            makeMove(move);
+            side = MoveGenerator.opponent(side);
+        }
+        for (int i = 0; i < length; i++) {
+            unmakeMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    private boolean isLegal(int move, ChessGame.TeamColor team, int ply) {
+        MoveList moves = generator.list(ply);
+        generator.generateLegal(board, team, 1L << Move.from(move), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SearchResult result(int score, int depth, long start) {
+        List<ChessMove> line = new ArrayList<>(previousPv.length);
+        for (int move : previousPv) {
+            line.add(Move.toChessMove(move));
+        }
+        return new SearchResult(line.isEmpty() ? null : line.get(0), List.copyOf(line), score, depth, nodes,
+                System.nanoTime() - start);
+    }
+
+    private int negamax(ChessGame.TeamColor team, int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (ply > 0 && isDraw()) {
+            return 0;
+        }
+        boolean inCheck = isInCheck(team);
+        if (inCheck) {
+            // Never stop the search in the middle of answering a check
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiescence(team, ply, alpha, beta);
+        }
+        countNode();
+
+        long key = keys[keyCount - 1];
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            // The root always searches, so there is a best move to report
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = generator.list(ply);
+        generator.generateLegal(board, team, -1L, moves);
+        if (moves.size() == 0) {
+            // Prefer the quickest mate, and the slowest one when being mated
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int pvMove = 0;
+        if (followingPv) {
+            if (ply < previousPv.length) {
+                pvMove = previousPv[ply];
+            } else {
+                followingPv = false;
+            }
+        }
+        int[] scores = scoreMoves(moves, team, ply, pvMove != 0 ? pvMove : hashMove);
+
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(team);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, scores, i);
+            followingPv = followingPv && move == pvMove;
+            makeMove(move);
+            int score = -negamax(opponent, depth - 1, ply + 1, -beta, -alpha);
+            unmakeMove();
+            followingPv = false;
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                            rememberCutoff(team, move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    private int quiescence(ChessGame.TeamColor team, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        countNode();
+        if (ply >= MAX_PLY) {
+            return Evaluation.evaluate(board, team);
+        }
+
+        boolean inCheck = isInCheck(team);
+        int best = -INFINITY;
+        if (!inCheck) {
+            // "Stand pat": the side to move can usually do at least as well as doing nothing
+            best = Evaluation.evaluate(board, team);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList moves = generator.list(ply);
+        generator.generateLegal(board, team, -1L, moves);
+        if (inCheck && moves.size() == 0) {
+            return -MATE + ply;
+        }
+        if (!inCheck) {
+            // Out of check only captures and promotions can change the static score, and
+            // one that loses material in the exchange won't raise it
+            int kept = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if ((Move.isCapture(move) || Move.isPromotion(move)) && !losesExchange(move)) {
+                    moves.set(kept++, move);
+                }
+            }
+            moves.truncate(kept);
+        }
+        int[] scores = scoreMoves(moves, team, ply, 0);
+
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(team);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, scores, i);
+            makeMove(move);
+            int score = -quiescence(opponent, ply + 1, -beta, -alpha);
+            unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void countNode() {
+        // Looking at the clock is comparatively slow, so only do it every 1024 nodes
+        if ((++nodes & 1023) == 0 && abortable && (stopRequested || System.nanoTime() - deadline >= 0)) {
+            stopped = true;
+        }
+    }
+
+    private boolean isInCheck(ChessGame.TeamColor team) {
+        long kings = board.getPieces(team, ChessPiece.PieceType.KING);
+        return kings != 0 && board.isSquareAttacked(Long.numberOfTrailingZeros(kings), MoveGenerator.opponent(team));
+    }
+
+    // A position seen before on the path or in the game is scored as a draw: if repeating
+    // it were good, it would be good again the next time round
+    private boolean isDraw() {
+        int current = keyCount - 1;
+        int clock = clocks[current];
+        if (clock >= 100) {
+            return true;
+        }
+        long key = keys[current];
+        for (int i = current - 2; i >= Math.max(0, current - clock); i -= 2) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void makeMove(int move) {
+        boolean irreversible = Move.isCapture(move)
+                || board.getPiece(Move.from(move)).getPieceType() == ChessPiece.PieceType.PAWN;
+        board.makeMove(move);
+        // After white moves it is black to move, and the other way round
+        long sideKey = (board.getPiece(Move.to(move)).getTeamColor() == ChessGame.TeamColor.WHITE)
+                ? Zobrist.BLACK_TO_MOVE : 0;
+        keys[keyCount] = board.getZobristKey() ^ sideKey;
+        clocks[keyCount] = irreversible ? 0 : clocks[keyCount - 1] + 1;
+        keyCount++;
+    }
+
+    private void unmakeMove() {
+        board.unmakeMove();
+        keyCount--;
+    }
+
+    // firstMove (from the principal variation or the transposition table) is tried before anything else
+    private int[] scoreMoves(MoveList moves, ChessGame.TeamColor team, int ply, int firstMove) {
+        if (orderScores[ply].length < moves.size()) {
+            orderScores[ply] = new int[moves.size()];
+        }
+        int[] scores = orderScores[ply];
+        int[] plyKillers = killers[ply];
+        int[][] teamHistory = history[team.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            int to = Move.to(move);
+            if (move == firstMove) {
+                scores[i] = PV_SCORE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                // MVV-LVA: the most valuable victim first, then the cheapest attacker
+                ChessPiece victim = board.getPiece(to);
+                int victimValue = victim == null ? (Move.isCapture(move) ? Evaluation.PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()] : 0)
+                        : Evaluation.PIECE_VALUES[victim.getPieceType().ordinal()];
+                int attackerValue = Evaluation.PIECE_VALUES[board.getPiece(from).getPieceType().ordinal()];
+                ChessPiece.PieceType promotion = Move.promotion(move);
+                int promotionValue = promotion == null ? 0 : Evaluation.PIECE_VALUES[promotion.ordinal()];
+                int order = victimValue * 10 - attackerValue / 10 + promotionValue;
+                scores[i] = (losesExchange(move) ? LOSING_CAPTURE_SCORE : CAPTURE_SCORE) + order;
+            } else if (move == plyKillers[0]) {
+                scores[i] = KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                scores[i] = KILLER_SCORE - 1;
+            } else {
+                scores[i] = teamHistory[from][to];
+            }
+        }
+        return scores;
+    }
+
+    private boolean losesExchange(int move) {
+        ChessPiece victim = board.getPiece(Move.to(move));
+        // Taking a piece worth at least the capturer can't lose material, whatever comes back
+        if (victim != null && Evaluation.PIECE_VALUES[victim.getPieceType().ordinal()]
+                >= Evaluation.PIECE_VALUES[board.getPiece(Move.from(move)).getPieceType().ordinal()]) {
+            return false;
+        }
+        return StaticExchange.evaluate(board, move) < 0;
+    }
+
+    // Selection sort one step at a time: a cutoff often comes early, so sorting the whole list would be wasted
+    private static int pickMove(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private void rememberCutoff(ChessGame.TeamColor team, int move, int depth, int ply) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] fromHistory = history[team.ordinal()][Move.from(move)];
+        fromHistory[Move.to(move)] += depth * depth;
+        if (fromHistory[Move.to(move)] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    // Halving keeps old results as a hint while letting new ones take over
+    private void ageHistory() {
+        for (int[][] teamHistory : history) {
+            for (int[] fromHistory : teamHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] /= 2;
+                }
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pvTable[ply][ply] = move;
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - (ply + 1));
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    private void ensureKeyCapacity(int capacity) {
+        if (keys.length < capacity) {
+            keys = new long[capacity];
+            clocks = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package chess;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link Search}: the move to play and the line the search expects to
+ * follow, from the deepest iteration that finished inside the time budget.
+ *
+ * @param bestMove           the move to play, or null if the side to move has no legal move
+ * @param principalVariation the expected line of play, starting with bestMove
+ * @param score              centipawns for the side to move; mates are scored
+ *                           {@link Search#MATE} minus the number of plies to mate
+ * @param depth              the deepest completed iteration
+ * @param nodes              positions visited, including the unfinished last iteration
+ * @param nanos              time taken
+ */
+public record SearchResult(ChessMove bestMove, List<ChessMove> principalVariation, int score, int depth,
+                           long nodes, long nanos) {
+
+    /**
+     * @return true if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    public long nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+}
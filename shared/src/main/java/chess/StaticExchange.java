@@ -0,0 +1,132 @@
+package chess;
+
+/**
+ * Static exchange evaluation (SEE): the material a capture wins or loses once both
+ * sides have finished recapturing on the target square, each always recapturing with
+ * its least valuable piece and free to stop when going on would lose more.
+ * <p>
+ * The exchange is played out on an occupancy bitboard with the attack tables, so no
+ * move is made on the board. Removing each capturer from the occupancy uncovers any
+ * rook, bishop or queen lined up behind it. Pins are not taken into account.
+ */
+public final class StaticExchange {
+    // The search's capture-ordering values, except that the king outweighs any exchange
+    private static final int[] VALUES = Evaluation.PIECE_VALUES.clone();
+    static {
+        VALUES[ChessPiece.PieceType.KING.ordinal()] = 20_000;
+    }
+    // Scratch space for evaluate(); an exchange has at most 32 captures
+    private static final ThreadLocal<int[]> GAINS = ThreadLocal.withInitial(() -> new int[32]);
+    // Least valuable first
+    private static final ChessPiece.PieceType[] CAPTURE_ORDER = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+
+    private StaticExchange() {
+    }
+
+    /**
+     * @return the expected material gain of a move in centipawns for the side making it;
+     * 0 for a quiet move to a safe square, negative if the moved piece is lost for less
+     * @throws IllegalArgumentException if the move's start square is empty
+     */
+    public static int evaluate(ChessBoard board, ChessMove move) {
+        return evaluate(board, Move.of(move));
+    }
+
+    /**
+     * Checks whether the opponent can win material by capturing the piece on a square.
+     *
+     * @return true if some capture of the piece has a positive exchange value
+     */
+    public static boolean isHanging(ChessBoard board, ChessPosition position) {
+        ChessPiece piece = board.getPiece(position);
+        if (piece == null) {
+            return false;
+        }
+        int square = ChessBoard.squareOf(position);
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(piece.getTeamColor());
+        long attackers = board.attackersOf(square, opponent, board.getOccupied());
+        for (; attackers != 0; attackers &= attackers - 1) {
+            if (evaluate(board, Move.of(Long.numberOfTrailingZeros(attackers), square, Move.CAPTURE)) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int evaluate(ChessBoard board, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece mover = board.getPiece(from);
+        if (mover == null) {
+            throw new IllegalArgumentException("No piece at " + ChessBoard.positionOf(from));
+        }
+        long occupied = board.getOccupied();
+        ChessPiece target = board.getPiece(to);
+
+        // gains[i]: material for the side making capture i if the exchange stopped after it
+        int[] gains = GAINS.get();
+        int victimValue = target == null ? 0 : VALUES[target.getPieceType().ordinal()];
+        if (mover.getPieceType() == ChessPiece.PieceType.PAWN && target == null && (from & 7) != (to & 7)) {
+            // En passant: the captured pawn is beside the start square, not on the target
+            victimValue = VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+            occupied &= ~(1L << ((from & ~7) | (to & 7)));
+        }
+        int onSquare = VALUES[mover.getPieceType().ordinal()];
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            victimValue += VALUES[promotion.ordinal()] - VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+            onSquare = VALUES[promotion.ordinal()];
+        }
+        gains[0] = victimValue;
+        occupied &= ~(1L << from);
+
+        long attackers = (board.attackersOf(to, ChessGame.TeamColor.WHITE, occupied)
+                | board.attackersOf(to, ChessGame.TeamColor.BLACK, occupied)) & occupied;
+        ChessGame.TeamColor side = MoveGenerator.opponent(mover.getTeamColor());
+        int depth = 0;
+        while (depth < gains.length - 1) {
+            long ownAttackers = attackers & board.getTeamPieces(side);
+            if (ownAttackers == 0) {
+                break;
+            }
+            ChessPiece.PieceType capturer = null;
+            long capturerBit = 0;
+            for (ChessPiece.PieceType type : CAPTURE_ORDER) {
+                long pieces = ownAttackers & board.getPieces(side, type);
+                if (pieces != 0) {
+                    capturer = type;
+                    capturerBit = Long.lowestOneBit(pieces);
+                    break;
+                }
+            }
+            if (capturer == ChessPiece.PieceType.KING
+                    && (attackers & board.getTeamPieces(MoveGenerator.opponent(side))) != 0) {
+                // The king can't capture onto a square that is still defended
+                break;
+            }
+
+            depth++;
+            gains[depth] = onSquare - gains[depth - 1];
+            if (Math.max(-gains[depth - 1], gains[depth]) < 0) {
+                // Neither continuing nor stopping here can change the outcome
+                break;
+            }
+            onSquare = VALUES[capturer.ordinal()];
+            occupied &= ~capturerBit;
+            // Sliders lined up behind the capturer now see the square
+            attackers = (attackers | board.attackersOf(to, ChessGame.TeamColor.WHITE, occupied)
+                    | board.attackersOf(to, ChessGame.TeamColor.BLACK, occupied)) & occupied;
+            side = MoveGenerator.opponent(side);
+        }
+
+        // Each side stops as soon as continuing would do worse than standing pat
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+}
@@ -0,0 +1,163 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results keyed by 64-bit position keys, safe to share
+ * between any number of searching threads without locks.
+ * <p>
+ * Everything lives in one preallocated {@code long[]}, so the table never allocates
+ * after construction. Each entry is two longs: the packed data, and the key XORed with
+ * that data. Threads write both halves without synchronising, so a reader can see one
+ * half from one write and the other half from another; XORing the halves back together
+ * only gives the right key when they belong together, so torn entries simply miss.
+ * <p>
+ * Entries come in buckets of two. The first slot keeps the deepest result seen for
+ * its bucket (results from earlier searches give way to new ones), the second always
+ * takes the latest result that didn't make it into the first.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    // Data layout: bits 0-19 move, 20-37 score (signed), 38-45 depth, 46-47 bound,
+    // 48-55 search generation. A stored bound is never 0, so 0 can mean "no entry".
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 38;
+    private static final int BOUND_SHIFT = 46;
+    private static final int GENERATION_SHIFT = 48;
+    // Mate scores are stored relative to the position rather than the search root
+    private static final int MATE_THRESHOLD = Search.MATE - Search.MAX_PLY;
+
+    // Four longs per bucket: depth-preferred key^data, data, then always-replace key^data, data
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes memory to use; rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long buckets = Long.highestOneBit(megabytes * (1L << 20) / (4 * Long.BYTES));
+        // A Java array holds at most 2^31 - 1 longs
+        buckets = Math.min(buckets, 1L << 28);
+        this.table = new long[(int) buckets * 4];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Marks the start of a new search, so the entries of earlier searches are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * @return the packed entry stored for a key, or 0 if there is none; unpack it with
+     * {@link #move}, {@link #score}, {@link #depth} and {@link #bound}
+     */
+    long probe(long key) {
+        int index = index(key);
+        for (int slot = index; slot < index + 4; slot += 2) {
+            long data = table[slot + 1];
+            if ((table[slot] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result for a position.
+     *
+     * @param ply the position's distance from the search root, used to store mate scores
+     *            as distances from the position itself
+     */
+    void store(long key, int move, int score, int depth, int bound, int ply) {
+        if (score >= MATE_THRESHOLD) {
+            score += ply;
+        } else if (score <= -MATE_THRESHOLD) {
+            score -= ply;
+        }
+        int currentGeneration = generation;
+        long data = (move & 0xFFFFFL)
+                | ((score & 0x3FFFFL) << SCORE_SHIFT)
+                | ((long) Math.clamp(depth, 0, 255) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) currentGeneration << GENERATION_SHIFT);
+
+        int index = index(key);
+        long deepData = table[index + 1];
+        boolean sameKey = (table[index] ^ deepData) == key;
+        if (sameKey || deepData == 0 || depth >= depth(deepData) || generation(deepData) != currentGeneration) {
+            if (sameKey && move == 0) {
+                // Keep the best move found by an earlier search of the same position
+                data |= move(deepData);
+            }
+            table[index] = key ^ data;
+            table[index + 1] = data;
+        } else {
+            table[index + 2] = key ^ data;
+            table[index + 3] = data;
+        }
+    }
+
+    static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    /**
+     * @return the stored score, with mate scores converted back to distances from the root
+     */
+    static int score(long data, int ply) {
+        // Shift the 18-bit field to the top of an int and back down to restore its sign
+        int score = (int) (data >>> SCORE_SHIFT) << 14 >> 14;
+        if (score >= MATE_THRESHOLD) {
+            return score - ply;
+        } else if (score <= -MATE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+    /**
+     * @return how full the table is in permille, estimated from the first thousand buckets
+     */
+    public int hashfull() {
+        int sampled = Math.min(1000, bucketMask + 1);
+        int used = 0;
+        for (int bucket = 0; bucket < sampled; bucket++) {
+            for (int slot = bucket * 4; slot < bucket * 4 + 4; slot += 2) {
+                if (table[slot + 1] != 0 && generation(table[slot + 1]) == generation) {
+                    used++;
+                }
+            }
+        }
+        return used * 1000 / (sampled * 2);
+    }
+
+    private int index(long key) {
+        // The low bits pick the bucket; the full key is still checked on probe
+        return ((int) key & bucketMask) * 4;
+    }
+}
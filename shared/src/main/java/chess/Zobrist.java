@@ -0,0 +1,56 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the keys for
+ * each piece on its square, the castling rights, the en passant file and the side to
+ * move, so a move updates it with a few XORs instead of rehashing the board.
+ * <p>
+ * The keys come from a fixed-seed generator, so a position has the same key in every
+ * run and keys can be stored alongside games.
+ */
+final class Zobrist {
+    // PIECES[pieceIndex][square], indexed like ChessBoard's bitboards
+    static final long[][] PIECES = new long[12][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        long state = 0x6A09E667F3BCC908L;
+        for (long[] piece : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                piece[square] = mix(state);
+            }
+        }
+        // Each right gets its own key and a set of rights is the XOR of its members
+        long[] rights = new long[4];
+        for (int i = 0; i < rights.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            rights[i] = mix(state);
+        }
+        for (int mask = 0; mask < CASTLING.length; mask++) {
+            for (int i = 0; i < rights.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    CASTLING[mask] ^= rights[i];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            state += 0x9E3779B97F4A7C15L;
+            EN_PASSANT_FILE[file] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BitboardTests {
+    private static final ChessPiece WHITE_KNIGHT = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+    private static final ChessPiece WHITE_PAWN = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    private static final ChessPiece BLACK_ROOK = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+
+    @Test
+    @DisplayName("Boards with the same pieces are equal with the same hash, however they were built")
+    public void equalsAfterEdits() {
+        ChessBoard first = new ChessBoard();
+        first.addPiece(new ChessPosition(1, 2), WHITE_KNIGHT);
+        first.addPiece(new ChessPosition(8, 1), BLACK_ROOK);
+
+        ChessBoard second = new ChessBoard();
+        second.addPiece(new ChessPosition(8, 1), WHITE_KNIGHT);
+        second.addPiece(new ChessPosition(4, 4), BLACK_ROOK);
+        Assertions.assertNotEquals(first, second);
+
+        // Overwrite one square, empty another, then fill the right ones
+        second.addPiece(new ChessPosition(8, 1), BLACK_ROOK);
+        second.addPiece(new ChessPosition(4, 4), null);
+        second.addPiece(new ChessPosition(1, 2), WHITE_KNIGHT);
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+
+        Assertions.assertEquals(1L << ChessBoard.squareOf(1, 2),
+                second.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(1L << ChessBoard.squareOf(8, 1), second.getTeamPieces(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(2, Long.bitCount(second.getOccupied()));
+        Assertions.assertFalse(second.isPieceAt(new ChessPosition(4, 4)));
+        Assertions.assertNull(second.getPiece(new ChessPosition(4, 4)));
+    }
+
+    @Test
+    @DisplayName("A copy is equal to its original and edits to either don't leak into the other")
+    public void copyIsIndependent() {
+        ChessBoard original = new ChessBoard();
+        original.resetBoard();
+        ChessBoard copy = new ChessBoard(original);
+        Assertions.assertEquals(original, copy);
+        Assertions.assertEquals(original.hashCode(), copy.hashCode());
+
+        copy.addPiece(new ChessPosition(2, 5), null);
+        copy.addPiece(new ChessPosition(4, 5), WHITE_PAWN);
+        Assertions.assertNotEquals(original, copy);
+        Assertions.assertTrue(original.isPieceAt(new ChessPosition(2, 5)));
+        Assertions.assertFalse(original.isPieceAt(new ChessPosition(4, 5)));
+
+        copy.addPiece(new ChessPosition(4, 5), null);
+        copy.addPiece(new ChessPosition(2, 5), WHITE_PAWN);
+        Assertions.assertEquals(original, copy);
+        Assertions.assertEquals(original.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    @DisplayName("Resetting an edited board gives the starting position again")
+    public void reset() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard start = new ChessBoard(board);
+        Assertions.assertEquals(32, Long.bitCount(board.getOccupied()));
+        Assertions.assertEquals(0xFFFFL, board.getTeamPieces(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0xFFFFL << 48, board.getTeamPieces(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(new ChessPosition(5, 5), WHITE_KNIGHT);
+        board.addPiece(new ChessPosition(8, 8), null);
+        board.resetBoard();
+        Assertions.assertEquals(start, board);
+        Assertions.assertEquals(start.hashCode(), board.hashCode());
+        Assertions.assertEquals(start.getOccupied(), board.getOccupied());
+    }
+}
@@ -0,0 +1,96 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+public class ChessJsonTests {
+
+    @Test
+    @DisplayName("Round trips a game through the compact format")
+    public void roundTrip() throws InvalidMoveException {
+        ChessGame game = Perft.position("kiwipete").toGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(1, 2), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 3), ChessPosition.of(5, 3), null));
+
+        String json = ChessJson.gson().toJson(game);
+        ChessGame decoded = ChessJson.gson().fromJson(json, ChessGame.class);
+
+        Assertions.assertTrue(json.length() < new Gson().toJson(game).length() / 4, json);
+        Assertions.assertEquals(game.getBoard(), decoded.getBoard());
+        Assertions.assertEquals(game.getPositionKey(), decoded.getPositionKey());
+        Assertions.assertEquals(game.getBoard().getEnPassantPosition(), decoded.getBoard().getEnPassantPosition());
+        Assertions.assertEquals(2, decoded.getFullmoveNumber());
+        Assertions.assertEquals(Fen.toFen(game), Fen.toFen(decoded));
+        Assertions.assertNull(ChessJson.gson().fromJson("null", ChessGame.class));
+
+        ChessGame late = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 7 212");
+        Assertions.assertEquals(Fen.toFen(late),
+                Fen.toFen(ChessJson.gson().fromJson(ChessJson.gson().toJson(late), ChessGame.class)));
+    }
+
+    @Test
+    @DisplayName("Reads games stored with reflective Gson, repetition history included")
+    public void readsReflectiveJson() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1"};
+        for (String move : shuffle) {
+            game.makeMove(ChessMove.of(ChessPosition.of(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                    ChessPosition.of(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), null));
+        }
+
+        ChessGame decoded = ChessJson.gson().fromJson(new Gson().toJson(game), ChessGame.class);
+
+        Assertions.assertEquals(game.getBoard(), decoded.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        Assertions.assertEquals(7, decoded.getHalfmoveClock());
+        decoded.makeMove(ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null));
+        Assertions.assertTrue(decoded.isDrawByRepetition());
+    }
+
+    @Test
+    @DisplayName("Reads the original nested squares format")
+    public void readsNestedSquares() {
+        String emptyRow = "[null,null,null,null,null,null,null,null]";
+        String json = "{\"board\":{\"squares\":["
+                + "[null,null,null,null,{\"teamColor\":\"WHITE\",\"pieceType\":\"KING\","
+                + "\"currentPosition\":{\"row\":1,\"col\":5}},null,null,null],"
+                + String.join(",", Collections.nCopies(6, emptyRow)) + ","
+                + "[null,null,null,null,{\"teamColor\":\"BLACK\",\"pieceType\":\"KING\"},null,null,null]"
+                + "]},\"currentPlayer\":\"BLACK\"}";
+
+        ChessGame decoded = ChessJson.gson().fromJson(json, ChessGame.class);
+
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                decoded.getBoard().getPiece(ChessPosition.of(1, 5)));
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING),
+                decoded.getBoard().getPiece(ChessPosition.of(8, 5)));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Nested squares boards only castle with pieces still on their home squares")
+    public void nestedSquaresCastlingRights() throws InvalidMoveException {
+        String emptyRow = "[null,null,null,null,null,null,null,null]";
+        String json = "{\"board\":{\"squares\":["
+                + "[null,null,null,null,null,null,null," + legacyPiece("WHITE", "ROOK") + "],"
+                + "[null,null,null,null," + legacyPiece("WHITE", "KING") + ",null,null,null],"
+                + String.join(",", Collections.nCopies(5, emptyRow)) + ","
+                + "[" + legacyPiece("BLACK", "ROOK") + ",null,null,null," + legacyPiece("BLACK", "KING") + ",null,null,null]"
+                + "]},\"currentPlayer\":\"WHITE\"}";
+
+        ChessGame decoded = ChessJson.gson().fromJson(json, ChessGame.class);
+
+        Assertions.assertEquals(ChessBoard.BLACK_QUEENSIDE, decoded.getBoard().getCastlingRights());
+        // The white king has moved, so walking it back home does not let it castle
+        TestMoves.play(decoded, "e2e1", "e8e7");
+        Assertions.assertFalse(decoded.validMoves(TestMoves.position("e1")).contains(TestMoves.move("e1g1")));
+    }
+
+    private static String legacyPiece(String team, String type) {
+        return "{\"teamColor\":\"" + team + "\",\"pieceType\":\"" + type + "\"}";
+    }
+}
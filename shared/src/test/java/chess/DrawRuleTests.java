@@ -0,0 +1,50 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DrawRuleTests {
+
+    @Test
+    @DisplayName("Third occurrence of a position is a repetition draw")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        TestMoves.play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        Assertions.assertFalse(game.isDrawByRepetition());
+
+        TestMoves.play(game, "g1f3", "g8f6", "f3g1");
+        Assertions.assertFalse(game.isDrawByRepetition());
+        TestMoves.play(game, "f6g8");
+        Assertions.assertTrue(game.isDrawByRepetition());
+
+        // Setting the same turn and board again keeps the earlier positions
+        game.setTeamTurn(game.getTeamTurn());
+        game.setBoard(game.getBoard());
+        Assertions.assertTrue(game.isDrawByRepetition());
+
+        game.undoMove();
+        Assertions.assertFalse(game.isDrawByRepetition());
+    }
+
+    @Test
+    @DisplayName("Fifty moves without a capture or pawn move is a draw")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        TestMoves.play(game, "e2e4");
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+
+        String[] shuffle = {"g8f6", "g1f3", "f6g8", "f3g1", "b8c6", "b1c3", "c6b8", "c3b1"};
+        for (int i = 0; i < 99; i++) {
+            TestMoves.play(game, shuffle[i % shuffle.length]);
+        }
+        Assertions.assertEquals(99, game.getHalfmoveClock());
+        Assertions.assertFalse(game.isDrawByFiftyMoveRule());
+
+        TestMoves.play(game, shuffle[99 % shuffle.length]);
+        Assertions.assertTrue(game.isDrawByFiftyMoveRule());
+
+        game.undoMove();
+        Assertions.assertFalse(game.isDrawByFiftyMoveRule());
+    }
+}
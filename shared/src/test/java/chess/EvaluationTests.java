@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Symmetric starting position evaluates to zero")
+    public void startingPosition() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals(0, Evaluation.evaluate(board, ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Evaluation.MAX_PHASE, board.getPhase());
+    }
+
+    @Test
+    @DisplayName("Incremental totals match a rescan through make and unmake")
+    public void incrementalMatchesRescan() {
+        ChessBoard board = Perft.position("kiwipete").toGame().getBoard();
+        int before = Evaluation.evaluate(board, ChessGame.TeamColor.WHITE);
+        walk(board, ChessGame.TeamColor.WHITE, 3);
+        Assertions.assertEquals(before, Evaluation.evaluate(board, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Copies and edits keep the totals")
+    public void copiesAndEdits() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        board.addPiece(ChessPosition.of(1, 4), null);
+        ChessBoard copy = new ChessBoard(board);
+
+        Assertions.assertEquals(Evaluation.rescan(board), Evaluation.evaluate(copy, ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(Evaluation.evaluate(copy, ChessGame.TeamColor.BLACK) > 0);
+        Assertions.assertEquals(Evaluation.MAX_PHASE - 4, copy.getPhase());
+    }
+
+    // Checks every position of a small tree against a full rescan
+    private static void walk(ChessBoard board, ChessGame.TeamColor team, int depth) {
+        Assertions.assertEquals(Evaluation.rescan(board), Evaluation.evaluate(board, ChessGame.TeamColor.WHITE));
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        MoveGenerator.forThread().generateLegal(board, team, -1L, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            walk(board, MoveGenerator.opponent(team), depth - 1);
+            board.unmakeMove();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Writes and reads back the reference positions")
+    public void roundTrip() {
+        Assertions.assertEquals(Fen.START_POSITION, Fen.toFen(new ChessGame()));
+        Assertions.assertEquals(KIWIPETE, Fen.toFen(Perft.position("kiwipete").toGame()));
+
+        for (Perft.Position position : Perft.POSITIONS) {
+            ChessGame game = position.toGame();
+            ChessGame parsed = Fen.parse(Fen.toFen(game));
+            Assertions.assertEquals(game.getBoard(), parsed.getBoard(), position.name());
+            Assertions.assertEquals(game.getPositionKey(), parsed.getPositionKey(), position.name());
+        }
+        Assertions.assertEquals(97_862, Perft.run(Fen.parse(KIWIPETE), 3).nodes());
+    }
+
+    @Test
+    @DisplayName("Tracks en passant and both clocks, and reuses the target game")
+    public void clocksAndReuse() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.toFen(game));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", Fen.toFen(game));
+
+        ChessBoard board = game.getBoard();
+        Fen.parse("8/8/8/4k3/8/8/8/4K2R b K - 12 40", game);
+        Assertions.assertSame(board, game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(12, game.getHalfmoveClock());
+        Assertions.assertEquals(40, game.getFullmoveNumber());
+        Assertions.assertEquals("8/8/8/4k3/8/8/8/4K2R b K - 12 40", Fen.toFen(game));
+
+        Fen.parse("8/8/8/4k3/8/8/8/4K3 w - -", game);
+        Assertions.assertEquals("8/8/8/4k3/8/8/8/4K3 w - - 0 1", Fen.toFen(game));
+
+        // Editing the position in place keeps the clocks
+        Fen.parse("8/8/8/4k3/8/8/8/4K2R b K - 12 40", game);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        game.setBoard(game.getBoard());
+        Assertions.assertEquals(12, game.getHalfmoveClock());
+        Assertions.assertEquals(40, game.getFullmoveNumber());
+        game.makeMove(ChessMove.of(ChessPosition.of(5, 5), ChessPosition.of(5, 4), null));
+        Assertions.assertEquals(41, game.getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("Reports where malformed records go wrong")
+    public void errorPositions() {
+        assertErrorAt(4, "rnbqxbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertErrorAt(16, "rnbqkbnr/ppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertErrorAt(44, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1");
+        assertErrorAt(49, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkK - 0 1");
+        assertErrorAt(52, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e3 0 1");
+        assertErrorAt(53, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1");
+        assertErrorAt(50, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq");
+    }
+
+    private static void assertErrorAt(int index, String fen) {
+        FenFormatException e = Assertions.assertThrows(FenFormatException.class, () -> Fen.parse(fen));
+        Assertions.assertEquals(index, e.getIndex(), e.getMessage());
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Shared pieces are reused and still equal pieces built with new")
+    public void pieces() {
+        for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                ChessPiece shared = ChessPiece.of(team, type);
+                ChessPiece fresh = new ChessPiece(team, type);
+                Assertions.assertSame(shared, ChessPiece.of(team, type));
+                Assertions.assertEquals(fresh, shared);
+                Assertions.assertEquals(shared, fresh);
+                Assertions.assertEquals(fresh.hashCode(), shared.hashCode());
+                Assertions.assertEquals(team, shared.getTeamColor());
+                Assertions.assertEquals(type, shared.getPieceType());
+            }
+        }
+        Assertions.assertNotEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+    }
+
+    @Test
+    @DisplayName("Shared positions are reused on the board and equal fresh ones everywhere")
+    public void positions() {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition shared = ChessPosition.of(row, col);
+                Assertions.assertSame(shared, ChessPosition.of(row, col));
+                Assertions.assertEquals(new ChessPosition(row, col), shared);
+                Assertions.assertEquals(new ChessPosition(row, col).hashCode(), shared.hashCode());
+            }
+        }
+        ChessPosition offBoard = ChessPosition.of(0, 9);
+        Assertions.assertNotSame(offBoard, ChessPosition.of(0, 9));
+        Assertions.assertEquals(new ChessPosition(0, 9), offBoard);
+        Assertions.assertNotEquals(ChessPosition.of(1, 2), ChessPosition.of(2, 1));
+    }
+
+    @Test
+    @DisplayName("Shared moves are reused and compare by squares and promotion")
+    public void moves() {
+        ChessPosition start = ChessPosition.of(7, 1);
+        ChessPosition end = ChessPosition.of(8, 1);
+        ChessMove queen = ChessMove.of(start, end, ChessPiece.PieceType.QUEEN);
+        Assertions.assertSame(queen, ChessMove.of(start, end, ChessPiece.PieceType.QUEEN));
+        Assertions.assertSame(queen, ChessMove.of(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(new ChessMove(start, end, ChessPiece.PieceType.QUEEN), queen);
+        Assertions.assertEquals(new ChessMove(start, end, ChessPiece.PieceType.QUEEN).hashCode(), queen.hashCode());
+        Assertions.assertNotEquals(ChessMove.of(start, end, ChessPiece.PieceType.KNIGHT), queen);
+        Assertions.assertNotEquals(ChessMove.of(start, end, null), queen);
+
+        // Moves that can't be shared are still built, and still compare by value
+        ChessMove kingPromotion = ChessMove.of(start, end, ChessPiece.PieceType.KING);
+        Assertions.assertNotSame(kingPromotion, ChessMove.of(start, end, ChessPiece.PieceType.KING));
+        Assertions.assertEquals(new ChessMove(start, end, ChessPiece.PieceType.KING), kingPromotion);
+    }
+
+    @Test
+    @DisplayName("Boards, copies and move generation hand out the shared instances")
+    public void sharedThroughTheEngine() {
+        ChessGame game = new ChessGame();
+        ChessBoard board = game.getBoard();
+        ChessPiece whitePawn = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        Assertions.assertSame(whitePawn, board.getPiece(ChessPosition.of(2, 5)));
+        Assertions.assertSame(whitePawn, new ChessBoard(board).getPiece(ChessPosition.of(2, 5)));
+
+        for (ChessMove move : game.validMoves(ChessPosition.of(2, 5))) {
+            Assertions.assertSame(ChessMove.of(move.getStartPosition(), move.getEndPosition(), null), move);
+            Assertions.assertSame(ChessPosition.of(2, 5), move.getStartPosition());
+        }
+    }
+}
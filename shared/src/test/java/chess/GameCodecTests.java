@@ -0,0 +1,67 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Round trips positions with castling rights, en passant and side to move")
+    public void roundTrip() throws InvalidMoveException {
+        Assertions.assertEquals(31, GameCodec.encode(new ChessGame()).length);
+
+        ChessGame game = Perft.position("kiwipete").toGame();
+        TestMoves.play(game, "a1b1", "c7c5");
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+
+        Assertions.assertEquals(game.getBoard(), decoded.getBoard());
+        Assertions.assertEquals(game.getTeamTurn(), decoded.getTeamTurn());
+        Assertions.assertEquals(game.getPositionKey(), decoded.getPositionKey());
+        Assertions.assertEquals(game.getBoard().getCastlingRights(), decoded.getBoard().getCastlingRights());
+        Assertions.assertEquals(game.getHalfmoveClock(), decoded.getHalfmoveClock());
+        Assertions.assertEquals(game.getBoard().getEnPassantPosition(), decoded.getBoard().getEnPassantPosition());
+    }
+
+    @Test
+    @DisplayName("Keeps the repetition history and replays encoded moves")
+    public void historyAndMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        TestMoves.play(game, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1");
+        List<ChessMove> moves = List.of(TestMoves.move("f6g8"));
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game, moves));
+
+        Assertions.assertEquals(8, decoded.getHalfmoveClock());
+        Assertions.assertTrue(decoded.isDrawByRepetition());
+        Assertions.assertEquals(new ChessGame().getBoard(), decoded.getBoard());
+    }
+
+    @Test
+    @DisplayName("Keeps the full move number")
+    public void fullmoveNumber() throws InvalidMoveException {
+        ChessGame game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 7 212");
+        TestMoves.play(game, "a8b8");
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        Assertions.assertEquals(213, decoded.getFullmoveNumber());
+        Assertions.assertEquals(Fen.toFen(game), Fen.toFen(decoded));
+    }
+
+    @Test
+    @DisplayName("Rejects JSON, truncated data and illegal moves")
+    public void rejectsInvalidData() {
+        byte[] json = "{\"board\":{}}".getBytes();
+        Assertions.assertFalse(GameCodec.isEncoded(json));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(json));
+
+        byte[] encoded = GameCodec.encode(new ChessGame());
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 4);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(truncated));
+
+        byte[] illegal = GameCodec.encode(new ChessGame(), List.of(TestMoves.move("e2e5")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(illegal));
+    }
+}
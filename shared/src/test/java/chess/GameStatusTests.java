@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameStatusTests {
+
+    @Test
+    @DisplayName("Status of the starting position")
+    public void startingPosition() {
+        GameStatus status = new ChessGame().getStatus();
+
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, status.teamToMove());
+        Assertions.assertFalse(status.inCheck());
+        Assertions.assertEquals(20, status.legalMoveCount());
+        Assertions.assertFalse(status.isGameOver());
+    }
+
+    @Test
+    @DisplayName("Status is cached until a move is made")
+    public void cachedUntilMove() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameStatus status = game.getStatus();
+        Assertions.assertSame(status, game.getStatus());
+
+        // Fool's mate
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+
+        GameStatus mate = game.getStatus();
+        Assertions.assertNotSame(status, mate);
+        Assertions.assertTrue(mate.inCheck());
+        Assertions.assertTrue(mate.isCheckmate());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Insufficient material")
+    public void insufficientMaterial() {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | |b| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | |B| |K| | | |
+                """));
+        // Both bishops stand on dark squares
+        Assertions.assertTrue(game.getStatus().insufficientMaterial());
+        Assertions.assertTrue(game.getStatus().isGameOver());
+
+        game.getBoard().addPiece(ChessPosition.of(1, 3), null);
+        game.getBoard().addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertFalse(game.getStatus().insufficientMaterial());
+    }
+}
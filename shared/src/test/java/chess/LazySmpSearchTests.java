@@ -0,0 +1,46 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LazySmpSearchTests {
+
+    @Test
+    @DisplayName("Helper threads add nodes and the result is a legal move")
+    public void multiThreaded() {
+        ChessGame game = Perft.position("kiwipete").toGame();
+        try (LazySmpSearch smp = new LazySmpSearch(new TranspositionTable(4))) {
+            LazySmpSearch.Result result = smp.search(game, 3, 4, 10_000);
+
+            Assertions.assertEquals(3, result.threads());
+            Assertions.assertTrue(result.result().depth() >= 4);
+            Assertions.assertTrue(result.nodes() >= result.result().nodes());
+            ChessMove best = result.result().bestMove();
+            Assertions.assertTrue(game.validMoves(best.getStartPosition()).contains(best));
+        }
+    }
+
+    @Test
+    @DisplayName("Finds the same mate as a single thread")
+    public void findsMate() {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """));
+        game.getBoard().setCastlingRights(0);
+        try (LazySmpSearch smp = new LazySmpSearch(new TranspositionTable(1))) {
+            SearchResult result = smp.search(game, 2, 6, 10_000).result();
+
+            Assertions.assertEquals(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+            Assertions.assertTrue(result.isMate());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    @DisplayName("Cached moves follow moves and direct board edits")
+    public void followsPositionChanges() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessPosition knight = ChessPosition.of(1, 7);
+        Assertions.assertEquals(2, game.validMoves(knight).size());
+        Assertions.assertEquals(2, game.validMoves(ChessPosition.of(8, 2)).size());
+
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        // The e-pawn moved out of the way, so the knight can now also go to e2
+        Assertions.assertEquals(3, game.validMoves(knight).size());
+
+        // Editing the board directly changes its key, so the cache notices
+        game.getBoard().addPiece(ChessPosition.of(3, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(2, game.validMoves(knight).size());
+    }
+
+    @Test
+    @DisplayName("Repeated queries return independent equal collections")
+    public void independentResults() {
+        ChessGame game = new ChessGame();
+        Collection<ChessMove> first = game.validMoves(ChessPosition.of(2, 4));
+        first.clear();
+        Collection<ChessMove> second = game.validMoves(ChessPosition.of(2, 4));
+
+        Assertions.assertEquals(new HashSet<>(second), new HashSet<>(game.validMoves(ChessPosition.of(2, 4))));
+        Assertions.assertEquals(2, second.size());
+    }
+}
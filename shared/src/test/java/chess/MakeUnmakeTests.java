@@ -0,0 +1,166 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.function.Consumer;
+
+import static chess.TestMoves.position;
+
+public class MakeUnmakeTests {
+    private static final ChessPiece WHITE_KNIGHT = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+    private static final ChessPiece WHITE_PAWN = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    private static final ChessPiece WHITE_QUEEN = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+    private static final ChessPiece WHITE_ROOK = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+    private static final String CASTLING_BOARD = """
+            |r| | | |k| | |r|
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            |R| | | |K| | |R|
+            """;
+
+    @Test
+    @DisplayName("Promotions, with and without a capture, are taken back to the pawn")
+    public void promotion() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                |r| | | |k| | | |
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        board.setCastlingRights(ChessBoard.BLACK_QUEENSIDE);
+
+        makeAndUnmake(board, "b7b8q", after -> {
+            Assertions.assertEquals(WHITE_QUEEN, after.getPiece(position("b8")));
+            Assertions.assertNull(after.getPiece(position("b7")));
+        });
+        makeAndUnmake(board, "b7a8n", after -> {
+            Assertions.assertEquals(WHITE_KNIGHT, after.getPiece(position("a8")));
+            Assertions.assertEquals(0, Long.bitCount(after.getTeamPieces(ChessGame.TeamColor.BLACK) & ~(1L << 60)));
+            // Taking the rook on its home square also takes away black's queenside castling
+            Assertions.assertEquals(0, after.getCastlingRights());
+        });
+    }
+
+    @Test
+    @DisplayName("En passant puts the captured pawn back beside the capturer")
+    public void enPassant() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p|P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        board.setCastlingRights(0);
+        board.setEnPassantPosition(position("d6"));
+
+        makeAndUnmake(board, "e5d6", after -> {
+            Assertions.assertEquals(WHITE_PAWN, after.getPiece(position("d6")));
+            Assertions.assertNull(after.getPiece(position("d5")));
+            Assertions.assertNull(after.getEnPassantPosition());
+        });
+        Assertions.assertEquals(position("d6"), board.getEnPassantPosition());
+    }
+
+    @Test
+    @DisplayName("Castling moves the rook too, and both come back with the rights")
+    public void castling() {
+        ChessBoard board = TestUtilities.loadBoard(CASTLING_BOARD);
+        board.setCastlingRights(ChessBoard.ALL_CASTLING_RIGHTS);
+
+        makeAndUnmake(board, "e1g1", after -> {
+            Assertions.assertEquals(WHITE_ROOK, after.getPiece(position("f1")));
+            Assertions.assertNull(after.getPiece(position("h1")));
+            Assertions.assertEquals(ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE, after.getCastlingRights());
+        });
+        makeAndUnmake(board, "e1c1", after -> {
+            Assertions.assertEquals(WHITE_ROOK, after.getPiece(position("d1")));
+            Assertions.assertNull(after.getPiece(position("a1")));
+        });
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING_RIGHTS, board.getCastlingRights());
+    }
+
+    @Test
+    @DisplayName("Rights lost by moving or losing a rook or king are restored")
+    public void castlingRightsLoss() {
+        ChessBoard board = TestUtilities.loadBoard(CASTLING_BOARD);
+        board.setCastlingRights(ChessBoard.ALL_CASTLING_RIGHTS);
+
+        makeAndUnmake(board, "a1a2", after -> Assertions.assertEquals(
+                ChessBoard.ALL_CASTLING_RIGHTS & ~ChessBoard.WHITE_QUEENSIDE, after.getCastlingRights()));
+        makeAndUnmake(board, "e1f1", after -> Assertions.assertEquals(
+                ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE, after.getCastlingRights()));
+        makeAndUnmake(board, "h1h8", after -> Assertions.assertEquals(
+                ChessBoard.WHITE_QUEENSIDE | ChessBoard.BLACK_QUEENSIDE, after.getCastlingRights()));
+    }
+
+    @Test
+    @DisplayName("A line of moves unwinds back to the exact starting state")
+    public void lineOfMoves() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                |r| | | |k| | |r|
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | |p|P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """);
+        board.setCastlingRights(ChessBoard.ALL_CASTLING_RIGHTS);
+        board.setEnPassantPosition(position("d6"));
+        ChessBoard before = new ChessBoard(board);
+        String[] line = {"e5d6", "e8c8", "b7b8r", "d8d6", "e1g1", "h8h1"};
+
+        for (String move : line) {
+            board.makeMove(TestMoves.move(move));
+        }
+        for (int i = 0; i < line.length; i++) {
+            board.unmakeMove();
+        }
+
+        assertSameState(before, board);
+        Assertions.assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    // Makes a move, checks the position it leads to, takes it back and checks the board
+    // is exactly as before
+    private static void makeAndUnmake(ChessBoard board, String move, Consumer<ChessBoard> after) {
+        ChessBoard before = new ChessBoard(board);
+        board.makeMove(TestMoves.move(move));
+        after.accept(board);
+        board.unmakeMove();
+        assertSameState(before, board);
+    }
+
+    private static void assertSameState(ChessBoard expected, ChessBoard actual) {
+        Assertions.assertEquals(expected, actual);
+        for (int square = 0; square < 64; square++) {
+            Assertions.assertEquals(expected.getPiece(square), actual.getPiece(square), "square " + square);
+        }
+        for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+            Assertions.assertEquals(expected.getTeamPieces(team), actual.getTeamPieces(team));
+        }
+        Assertions.assertEquals(expected.getOccupied(), actual.getOccupied());
+        Assertions.assertEquals(expected.getCastlingRights(), actual.getCastlingRights());
+        Assertions.assertEquals(expected.getEnPassantPosition(), actual.getEnPassantPosition());
+        Assertions.assertEquals(expected.getZobristKey(), actual.getZobristKey());
+        Assertions.assertEquals(expected.getMiddlegameScore(), actual.getMiddlegameScore());
+        Assertions.assertEquals(expected.getEndgameScore(), actual.getEndgameScore());
+        Assertions.assertEquals(expected.getPhase(), actual.getPhase());
+    }
+}
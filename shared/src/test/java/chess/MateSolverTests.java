@@ -0,0 +1,83 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MateSolverTests {
+
+    private static ChessGame rookLadder() {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | | | | |k|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | |R| | | | | | |
+                |R| | | |K| | | |
+                """));
+        game.getBoard().setCastlingRights(0);
+        return game;
+    }
+
+    @Test
+    @DisplayName("Finds a back rank mate in one")
+    public void mateInOne() {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """));
+        game.getBoard().setCastlingRights(0);
+
+        MateSolver.Result result = new MateSolver(100_000).solve(game, 1, 10_000);
+
+        Assertions.assertEquals(MateSolver.Outcome.MATE, result.outcome());
+        Assertions.assertEquals(1, result.mateIn());
+        Assertions.assertEquals(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.line().get(0));
+    }
+
+    @Test
+    @DisplayName("Finds a rook ladder mate in two and plays it out")
+    public void mateInTwo() throws InvalidMoveException {
+        ChessGame game = rookLadder();
+        ChessBoard before = new ChessBoard(game.getBoard());
+
+        MateSolver.Result result = new MateSolver(1_000_000).solve(game, 3, 10_000);
+
+        Assertions.assertEquals(MateSolver.Outcome.MATE, result.outcome());
+        Assertions.assertEquals(2, result.mateIn());
+        Assertions.assertTrue(result.nodes() > 0);
+        Assertions.assertEquals(before, game.getBoard());
+        for (ChessMove move : result.line()) {
+            game.makeMove(move);
+        }
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Refutes a mate that needs more moves than allowed")
+    public void noMateWithinLimit() {
+        MateSolver.Result result = new MateSolver(1_000_000).solve(rookLadder(), 1, 10_000);
+
+        Assertions.assertEquals(MateSolver.Outcome.NO_MATE, result.outcome());
+        Assertions.assertTrue(result.line().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Gives up when the node table fills")
+    public void nodeTableFull() {
+        MateSolver.Result result = new MateSolver(50).solve(Perft.position("kiwipete").toGame(), 3, 10_000);
+
+        Assertions.assertEquals(MateSolver.Outcome.UNKNOWN, result.outcome());
+        Assertions.assertTrue(result.nodes() <= 50);
+    }
+}
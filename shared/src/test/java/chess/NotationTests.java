@@ -0,0 +1,108 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class NotationTests {
+
+    @Test
+    @DisplayName("Resolves pawn, piece, capture and castling moves")
+    public void parsesSan() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(TestMoves.move("e2e4"), Notation.parseSan(game, "e4"));
+        Assertions.assertEquals(TestMoves.move("g1f3"), Notation.parseSan(game, "Nf3!"));
+
+        ChessGame kiwipete = Perft.position("kiwipete").toGame();
+        Assertions.assertEquals(TestMoves.move("e1g1"), Notation.parseSan(kiwipete, "O-O"));
+        Assertions.assertEquals(TestMoves.move("e1c1"), Notation.parseSan(kiwipete, "0-0-0"));
+        Assertions.assertEquals(TestMoves.move("e5f7"), Notation.parseSan(kiwipete, "Nxf7"));
+        Assertions.assertEquals(TestMoves.move("d5e6"), Notation.parseSan(kiwipete, "dxe6"));
+    }
+
+    @Test
+    @DisplayName("Uses disambiguation and promotion, and rejects ambiguous moves")
+    public void disambiguation() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | |k| | | |
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                |R| | | | | | |R|
+                """));
+        game.getBoard().setCastlingRights(0);
+
+        Assertions.assertEquals(TestMoves.move("a1d1"), Notation.parseSan(game, "Rad1"));
+        Assertions.assertEquals(TestMoves.move("h1f1"), Notation.parseSan(game, "Rhf1"));
+        Assertions.assertEquals(TestMoves.move("b7b8n"), Notation.parseSan(game, "b8=N"));
+        Assertions.assertEquals(TestMoves.move("b7b8q"), Notation.parseSan(game, "b8Q+"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseSan(game, "Rd1"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseSan(game, "Nc3"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseSan(game, "z9"));
+    }
+
+    @Test
+    @DisplayName("Writes SAN with disambiguation and check and mate suffixes")
+    public void writesSan() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | |k| | | |
+                | |P| | | | | | |
+                | | | | | | | | |
+                |R| | | | | |N| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                |R| | | | | | |R|
+                """));
+        game.getBoard().setCastlingRights(0);
+
+        Assertions.assertEquals("Rad1", Notation.toSan(game, TestMoves.move("a1d1")));
+        Assertions.assertEquals("R1a3", Notation.toSan(game, TestMoves.move("a1a3")));
+        Assertions.assertEquals("Nf3", Notation.toSan(game, TestMoves.move("g5f3")));
+        Assertions.assertEquals("b8=Q+", Notation.toSan(game, TestMoves.move("b7b8q")));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.toSan(game, TestMoves.move("a1h8")));
+
+        ChessGame kiwipete = Perft.position("kiwipete").toGame();
+        Assertions.assertEquals("O-O-O", Notation.toSan(kiwipete, TestMoves.move("e1c1")));
+        Assertions.assertEquals("Nxf7", Notation.toSan(kiwipete, TestMoves.move("e5f7")));
+        Assertions.assertEquals("dxe6", Notation.toSan(kiwipete, TestMoves.move("d5e6")));
+
+        ChessGame mate = new ChessGame();
+        for (String san : new String[]{"f3", "e5", "g4"}) {
+            Notation.playSan(mate, san);
+        }
+        Assertions.assertEquals("Qh4#", Notation.toSan(mate, TestMoves.move("d8h4")));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, mate.getTeamTurn());
+        Assertions.assertEquals(2, mate.getFullmoveNumber());
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.playSan(mate, "Qh5"));
+        Notation.playSan(mate, "Qh4#");
+        Assertions.assertTrue(mate.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("SAN and UCI round trip every legal move of the reference positions")
+    public void roundTrips() throws InvalidMoveException {
+        for (Perft.Position position : Perft.POSITIONS) {
+            ChessGame game = position.toGame();
+            for (int square = 0; square < 64; square++) {
+                ChessPiece piece = game.getBoard().getPiece(square);
+                if (piece == null || piece.getTeamColor() != game.getTeamTurn()) {
+                    continue;
+                }
+                for (ChessMove move : game.validMoves(ChessPosition.of(square / 8 + 1, square % 8 + 1))) {
+                    String san = Notation.toSan(game, move);
+                    Assertions.assertEquals(move, Notation.parseSan(game, san), san);
+                    Assertions.assertEquals(move, Notation.parseUci(Notation.toUci(move)));
+                }
+            }
+        }
+        Assertions.assertEquals("e7e8q", Notation.toUci(TestMoves.move("e7e8q")));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseUci("e7e8k"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseUci("e9e8"));
+    }
+}
@@ -0,0 +1,57 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+
+    @ParameterizedTest(name = "{0} to depth {1}")
+    @CsvSource({
+            "start, 4",
+            "kiwipete, 3",
+            "position3, 5",
+            "position4, 3",
+            "position5, 3"
+    })
+    @DisplayName("Perft matches reference node counts")
+    public void referenceCounts(String name, int depth) {
+        Perft.Position position = Perft.position(name);
+        Perft.Result result = Perft.run(position.toGame(), depth);
+        Assertions.assertEquals(position.expectedNodes()[depth - 1], result.nodes(),
+                "Wrong node count for " + name + " at depth " + depth);
+    }
+
+    @Test
+    @DisplayName("Perft leaves the game unchanged")
+    public void gameUnchanged() {
+        ChessGame game = Perft.position("kiwipete").toGame();
+        ChessBoard before = new ChessBoard(game.getBoard());
+        int castlingRights = game.getBoard().getCastlingRights();
+
+        Perft.run(game, 3);
+
+        Assertions.assertEquals(before, game.getBoard());
+        Assertions.assertEquals(castlingRights, game.getBoard().getCastlingRights());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Parallel perft matches the sequential count")
+    public void parallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String name : new String[]{"kiwipete", "position4"}) {
+                Perft.Position position = Perft.position(name);
+                Perft.Result result = Perft.run(position.toGame(), 4, pool);
+                Assertions.assertEquals(position.expectedNodes()[3], result.nodes(), "Wrong parallel count for " + name);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PgnReaderTests {
+    private static final String GAMES = """
+            [Event "Casual"]
+            [White "Anderssen, A."]
+            [Black "Kieseritzky, L."]
+
+            1. e4 e5 2. f4 exf4 {King's Gambit} 3. Bc4 Qh4+ (3... Nf6) 4. Kf1 b5 1-0
+
+            [Event "Short"]
+            [White "Fool"]
+
+            1.f3 e5 2.g4?? Qh4# 0-1
+            [Event "Broken"]
+
+            1. e4 e4 *
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Splits games across small mapped chunks")
+    public void splitsGames() throws IOException {
+        Path file = directory.resolve("games.pgn");
+        Files.writeString(file, GAMES);
+
+        List<String> games = new ArrayList<>();
+        try (PgnReader reader = new PgnReader(file, 7, 1 << 10)) {
+            String game;
+            while ((game = reader.nextGame()) != null) {
+                games.add(game);
+            }
+        }
+
+        Assertions.assertEquals(3, games.size());
+        Assertions.assertTrue(games.get(0).startsWith("[Event \"Casual\"]"));
+        Assertions.assertTrue(games.get(1).contains("Qh4# 0-1"));
+        Assertions.assertEquals(GAMES, String.join("", games));
+    }
+
+    @Test
+    @DisplayName("Does not split a game at a line inside a comment that starts like a tag")
+    public void keepsCommentLinesStartingWithBracket() throws IOException {
+        String games = """
+                [Event "Annotated"]
+
+                1. e4 e5 {Black mirrors.
+                [%clk 0:05:00] was the clock here} 2. Nf3 ; a remark {
+                [Event "Next"]
+
+                1. d4 *
+                """;
+        Path file = directory.resolve("games.pgn");
+        Files.writeString(file, games);
+
+        List<String> read = new ArrayList<>();
+        try (PgnReader reader = new PgnReader(file, 5, 1 << 10)) {
+            String game;
+            while ((game = reader.nextGame()) != null) {
+                read.add(game);
+            }
+        }
+
+        Assertions.assertEquals(2, read.size());
+        Assertions.assertEquals(List.of("e4", "e5", "Nf3"), PgnReader.parse(read.get(0)).moves());
+        Assertions.assertTrue(read.get(1).startsWith("[Event \"Next\"]"), read.get(1));
+    }
+
+    @Test
+    @DisplayName("Parses tags and the main line, dropping comments, variations and move numbers")
+    public void parsesGame() {
+        PgnReader.PgnGame game = PgnReader.parse(GAMES.substring(0, GAMES.indexOf("[Event \"Short\"]")));
+
+        Assertions.assertEquals("Anderssen, A.", game.tags().get("White"));
+        Assertions.assertEquals(List.of("e4", "e5", "f4", "exf4", "Bc4", "Qh4+", "Kf1", "b5"), game.moves());
+        Assertions.assertEquals("1-0", game.result());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PgnReader.parse("[Event \"x\"]\n1. e4 {open"));
+    }
+
+    @Test
+    @DisplayName("Rejects malformed movetext instead of failing or hanging")
+    public void rejectsMalformedMovetext() {
+        for (String text : List.of("1. e4 } e5 *", "1. e4 [x e5 *", "1. e4 ( } ) e5 *", "1. e4 ( [ ) e5 *",
+                "1. e4 ) e5 *", "1. e4 ( e5 *")) {
+            Assertions.assertTimeoutPreemptively(Duration.ofSeconds(1),
+                    () -> Assertions.assertThrows(IllegalArgumentException.class, () -> PgnReader.parse(text)),
+                    text);
+        }
+    }
+
+    @Test
+    @DisplayName("Skips games over the size limit")
+    public void skipsOversizedGames() throws IOException {
+        Path file = directory.resolve("games.pgn");
+        Files.writeString(file, GAMES);
+
+        try (PgnReader reader = new PgnReader(file, 1 << 10, 100)) {
+            String game = reader.nextGame();
+            Assertions.assertTrue(game.startsWith("[Event \"Short\"]"), game);
+            Assertions.assertNotNull(reader.nextGame());
+            Assertions.assertNull(reader.nextGame());
+            Assertions.assertEquals(1, reader.oversizedGames());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds a back rank mate")
+    public void backRankMate() {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """));
+        game.getBoard().setCastlingRights(0);
+
+        SearchResult result = new Search().search(game, 4, 10_000);
+
+        Assertions.assertEquals(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Wins a hanging queen rather than a defended pawn")
+    public void winsMaterial() {
+        ChessGame game = new ChessGame();
+        game.setBoard(Perft.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | |p| |q| | | |
+                | |p| | | | | | |
+                | | | |N| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+        game.getBoard().setCastlingRights(0);
+
+        SearchResult result = new Search().search(game, 4, 10_000);
+
+        Assertions.assertEquals(ChessMove.of(ChessPosition.of(4, 4), ChessPosition.of(6, 5), null), result.bestMove());
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().get(0));
+    }
+
+    @Test
+    @DisplayName("Returns a legal move with no time left and leaves the game untouched")
+    public void noTimeBudget() {
+        ChessGame game = Perft.position("kiwipete").toGame();
+        ChessBoard before = new ChessBoard(game.getBoard());
+
+        SearchResult result = new Search().search(game, 20, 0);
+
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+        Assertions.assertEquals(before, game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+}
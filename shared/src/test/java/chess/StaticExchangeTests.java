@@ -0,0 +1,80 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+    @Test
+    @DisplayName("Capturing a defended pawn with a rook loses the exchange")
+    public void defendedPawn() {
+        ChessBoard board = Perft.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | |p| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |K|R| | | |
+                """);
+
+        int see = StaticExchange.evaluate(board, TestMoves.move("e1e5"));
+        Assertions.assertEquals(100 - 500, see);
+    }
+
+    @Test
+    @DisplayName("A queen behind a rook joins the exchange")
+    public void xray() {
+        ChessBoard board = Perft.loadBoard("""
+                | | | |r| |k| | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R| | | | |
+                | | | |Q| |K| | |
+                """);
+
+        // RxP RxR QxR: up a pawn
+        Assertions.assertEquals(100, StaticExchange.evaluate(board, TestMoves.move("d2d7")));
+    }
+
+    @Test
+    @DisplayName("En passant and quiet moves")
+    public void specialMoves() {
+        ChessBoard board = Perft.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |P|p| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        Assertions.assertEquals(100, StaticExchange.evaluate(board, TestMoves.move("d5e6")));
+        Assertions.assertEquals(0, StaticExchange.evaluate(board, TestMoves.move("e1e2")));
+    }
+
+    @Test
+    @DisplayName("Hanging pieces")
+    public void hanging() {
+        ChessBoard board = Perft.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |N| |P| | |
+                | | | | | | |P| |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+
+        Assertions.assertTrue(StaticExchange.isHanging(board, ChessPosition.of(4, 4)));
+        Assertions.assertFalse(StaticExchange.isHanging(board, ChessPosition.of(4, 6)));
+        Assertions.assertFalse(StaticExchange.isHanging(board, ChessPosition.of(5, 3)));
+    }
+}
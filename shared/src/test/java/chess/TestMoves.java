@@ -0,0 +1,35 @@
+package chess;
+
+/**
+ * Builds and plays moves written as start and end squares with an optional promotion
+ * letter, e.g. {@code "g1f3"} or {@code "b7b8q"}.
+ */
+final class TestMoves {
+
+    private TestMoves() {
+    }
+
+    static ChessMove move(String move) {
+        ChessPiece.PieceType promotion = move.length() < 5 ? null : switch (move.charAt(4)) {
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            default -> throw new IllegalArgumentException("Unknown promotion in " + move);
+        };
+        return ChessMove.of(position(move.substring(0, 2)), position(move.substring(2, 4)), promotion);
+    }
+
+    static void play(ChessGame game, String... moves) throws InvalidMoveException {
+        for (String move : moves) {
+            game.makeMove(move(move));
+        }
+    }
+
+    /**
+     * @param square a square such as {@code "e4"}
+     */
+    static ChessPosition position(String square) {
+        return ChessPosition.of(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+}
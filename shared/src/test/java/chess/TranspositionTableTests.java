@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stored entries round trip")
+    public void roundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(12, 28, Move.DOUBLE_PUSH);
+        table.store(0x1234_5678_9ABC_DEF0L, move, -250, 7, TranspositionTable.UPPER_BOUND, 3);
+
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-250, TranspositionTable.score(entry, 3));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.probe(0x1234_5678_9ABC_DEF1L));
+    }
+
+    @Test
+    @DisplayName("Mate scores are stored relative to the position")
+    public void mateScores() {
+        TranspositionTable table = new TranspositionTable(1);
+        // Mate in 3 plies from a position 5 plies below the root is mate in 8 from the root...
+        table.store(42, 0, Search.MATE - 8, 4, TranspositionTable.EXACT, 5);
+        // ...and mate in 5 from the root when the same position turns up 2 plies deep
+        Assertions.assertEquals(Search.MATE - 5, TranspositionTable.score(table.probe(42), 2));
+
+        table.store(43, 0, -(Search.MATE - 8), 4, TranspositionTable.EXACT, 5);
+        Assertions.assertEquals(-(Search.MATE - 5), TranspositionTable.score(table.probe(43), 2));
+    }
+
+    @Test
+    @DisplayName("Deep entries survive shallow ones in the same bucket")
+    public void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        // Keys with equal low bits share a bucket
+        long deep = 5;
+        long shallow = 5 | (1L << 40);
+        long latest = 5 | (2L << 40);
+        table.store(deep, 0, 10, 9, TranspositionTable.EXACT, 0);
+        table.store(shallow, 0, 20, 2, TranspositionTable.EXACT, 0);
+        table.store(latest, 0, 30, 1, TranspositionTable.EXACT, 0);
+
+        Assertions.assertEquals(10, TranspositionTable.score(table.probe(deep), 0));
+        Assertions.assertEquals(0, table.probe(shallow));
+        Assertions.assertEquals(30, TranspositionTable.score(table.probe(latest), 0));
+
+        // Once a new search starts, old deep entries give way
+        table.newSearch();
+        table.store(shallow, 0, 20, 2, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(0, table.probe(deep));
+        Assertions.assertEquals(20, TranspositionTable.score(table.probe(shallow), 0));
+    }
+}
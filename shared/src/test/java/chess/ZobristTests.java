@@ -0,0 +1,70 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Transposed move orders reach the same key")
+    public void transposition() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        TestMoves.play(first, "g1f3", "g8f6", "b1c3", "b8c6");
+        ChessGame second = new ChessGame();
+        TestMoves.play(second, "b1c3", "b8c6", "g1f3", "g8f6");
+
+        Assertions.assertEquals(first.getPositionKey(), second.getPositionKey());
+        Assertions.assertEquals(first.getBoard().hashCode(), second.getBoard().hashCode());
+    }
+
+    @Test
+    @DisplayName("Undoing a move restores the key")
+    public void undoRestoresKey() throws InvalidMoveException {
+        ChessGame game = Perft.position("kiwipete").toGame();
+        long key = game.getPositionKey();
+
+        // Castling, a capture and a double push that enables en passant
+        TestMoves.play(game, "e1g1", "b4c3", "a2a4");
+        Assertions.assertNotEquals(key, game.getPositionKey());
+        game.undoMove();
+        game.undoMove();
+        game.undoMove();
+
+        Assertions.assertEquals(key, game.getPositionKey());
+    }
+
+    @Test
+    @DisplayName("Side to move, castling rights and en passant change the key")
+    public void stateBeyondPieces() {
+        ChessGame game = new ChessGame();
+        long key = game.getPositionKey();
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(key, game.getPositionKey());
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        game.getBoard().setCastlingRights(ChessBoard.WHITE_KINGSIDE);
+        Assertions.assertNotEquals(key, game.getPositionKey());
+        game.getBoard().setCastlingRights(ChessBoard.ALL_CASTLING_RIGHTS);
+        Assertions.assertEquals(key, game.getPositionKey());
+
+        // A double push only changes the en passant part when a pawn could capture
+        ChessBoard board = Perft.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |P|p| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        board.setCastlingRights(0);
+        long withoutTarget = board.getZobristKey();
+        board.setEnPassantPosition(ChessPosition.of(3, 4));
+        Assertions.assertNotEquals(withoutTarget, board.getZobristKey());
+        board.setEnPassantPosition(ChessPosition.of(3, 1));
+        Assertions.assertEquals(withoutTarget, board.getZobristKey());
+    }
+}